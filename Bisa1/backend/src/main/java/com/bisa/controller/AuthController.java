@@ -3,74 +3,152 @@ package com.bisa.controller;
 import com.bisa.dto.UserDto;
 import com.bisa.entity.User;
 import com.bisa.repository.UserRepository;
+import com.bisa.security.CustomUserDetailsService;
 import com.bisa.security.JwtTokenProvider;
+import com.bisa.security.PasswordHasher;
+import com.bisa.security.UserPrincipal;
+import com.bisa.service.UserAvailabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private CustomUserDetailsService userDetailsService;
     
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
     
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+    
+    // Spring Boot's general task pool; blocking database work after hashing goes here, not on the BCrypt pool
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+    
+    // The principal is resolved on the task pool (cached, or one projection query); only the BCrypt comparison
+    // runs on the password hashing pool, and the Tomcat thread is released meanwhile.
+    // Stateless: the token is the session, so nothing is stored in the SecurityContext here.
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
-        
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("accessToken", jwt);
-        response.put("tokenType", "Bearer");
-        
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        String password = loginRequest.getPassword();
+        return CompletableFuture.supplyAsync(() -> findPrincipal(loginRequest.getEmail()), taskExecutor)
+                .thenCompose(principal -> passwordHasher
+                        .matches(password, principal != null ? principal.getPassword() : null)
+                        .thenApply(matches -> {
+                            if (!matches) {
+                                throw new BadCredentialsException("Bad credentials");
+                            }
+                            upgradeHashIfNeeded(principal, password);
+                            
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("accessToken", tokenProvider.generateToken(principal.getId()));
+                            response.put("tokenType", "Bearer");
+                            
+                            return ResponseEntity.ok(response);
+                        }));
+    }
+    
+    private UserPrincipal findPrincipal(String email) {
+        try {
+            return (UserPrincipal) userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+    
+    // A hash made with a lower cost than the calibrated one is replaced after a successful sign-in, off the
+    // response path. If the hashing pool is busy the upgrade is skipped and retried on a later sign-in.
+    private void upgradeHashIfNeeded(UserPrincipal principal, String password) {
+        if (!passwordHasher.needsRehash(principal.getPassword())) {
+            return;
+        }
+        try {
+            passwordHasher.encode(password)
+                    .thenAcceptAsync(hash -> userDetailsService.updatePassword(principal, hash), taskExecutor)
+                    .exceptionally(e -> {
+                        logger.warn("Password hash upgrade failed for user {}", principal.getId(), e);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Password hashing pool busy; hash upgrade for user {} deferred", principal.getId());
+        }
     }
     
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity.badRequest().body("Email is already taken!");
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
+        if (userAvailabilityService.isEmailTaken(signUpRequest.getEmail())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email is already taken!"));
         }
         
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity.badRequest().body("Username is already taken!");
+        if (userAvailabilityService.isUsernameTaken(signUpRequest.getUsername())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Username is already taken!"));
         }
         
         User user = new User();
         user.setName(signUpRequest.getName());
         user.setUsername(signUpRequest.getUsername());
         user.setEmail(signUpRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
-        
-        User savedUser = userRepository.save(user);
         
-        return ResponseEntity.ok("User registered successfully");
+        return passwordHasher.encode(signUpRequest.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            try {
+                userAvailabilityService.userRegistered(userRepository.save(user));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent signup, or a user created outside this instance's filters, took the email or username
+                userAvailabilityService.loginTaken(signUpRequest.getEmail(), signUpRequest.getUsername());
+                return ResponseEntity.badRequest().body(takenMessage(signUpRequest));
+            }
+            return ResponseEntity.ok("User registered successfully");
+        }, taskExecutor);
+    }
+    
+    private String takenMessage(SignUpRequest signUpRequest) {
+        return userRepository.existsByEmail(signUpRequest.getEmail())
+                ? "Email is already taken!"
+                : "Username is already taken!";
+    }
+    
+    // Live "available?" check while typing; most answers come from the in-memory filters
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        Map<String, Object> response = new HashMap<>();
+        if (username != null) {
+            response.put("usernameAvailable", !userAvailabilityService.isUsernameTaken(username));
+        }
+        if (email != null) {
+            response.put("emailAvailable", !userAvailabilityService.isEmailTaken(email));
+        }
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/me")
@@ -85,6 +163,19 @@ public class AuthController {
         return ResponseEntity.ok(userDto);
     }
     
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> handleBadCredentials(AuthenticationException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email or password");
+    }
+    
+    // Password hashing queue is full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleHashingBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many sign-in requests, please retry");
+    }
+    
     // Request/Response classes
     public static class LoginRequest {
         private String email;
@@ -1,8 +1,15 @@
 package com.bisa.repository;
 
 import com.bisa.entity.User;
+import com.bisa.security.UserAuthView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +18,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+    
+    // Credential projections for sign-in and JWT principal resolution
+    Optional<UserAuthView> findAuthViewByEmail(String email);
+    Optional<UserAuthView> findAuthViewById(Long id);
+    
+    // Stores a re-hashed password without loading the user; bumps updated_at as @PreUpdate would
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = :updatedAt WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Keyset page of [id, email, username] rows for seeding the signup availability filters
+    @Query("SELECT u.id, u.email, u.username FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findLoginNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.bisa.security;
+
+import com.bisa.repository.UserRepository;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Sign-in is by email. Principals are built from a five-column projection and cached, so repeat logins
+// and JWT principal resolution skip entity hydration. As a UserDetailsPasswordService it also stores
+// re-hashed passwords when the stored hash uses a lower BCrypt cost than the current one.
+@Service
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserPrincipal cached = userDetailsCache.getByEmail(email);
+        if (cached != null) {
+            return cached;
+        }
+        UserPrincipal principal = userRepository.findAuthViewByEmail(email)
+                .map(UserPrincipal::create)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        userDetailsCache.put(principal);
+        return principal;
+    }
+    
+    // Principal for a verified JWT subject; empty if the user no longer exists
+    @Transactional(readOnly = true)
+    public Optional<UserPrincipal> loadUserById(Long userId) {
+        UserPrincipal cached = userDetailsCache.getById(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<UserPrincipal> principal = userRepository.findAuthViewById(userId).map(UserPrincipal::create);
+        principal.ifPresent(userDetailsCache::put);
+        return principal;
+    }
+    
+    // A single UPDATE of the hash column; the user entity is never loaded
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) userDetails;
+        if (userRepository.updatePassword(principal.getId(), newPassword, LocalDateTime.now()) == 0) {
+            throw new UsernameNotFoundException("User not found with id: " + principal.getId());
+        }
+        userDetailsCache.invalidate(principal.getId());
+        return new UserPrincipal(principal.getId(), principal.getName(), principal.getUsername(),
+                principal.getEmail(), newPassword, principal.getAuthorities());
+    }
+}
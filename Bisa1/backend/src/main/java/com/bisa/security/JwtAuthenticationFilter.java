@@ -0,0 +1,52 @@
+package com.bisa.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.Optional;
+
+// Parses the Bearer token once per request and resolves its subject to a cached UserPrincipal;
+// the verified claims are left on the request for controllers that need them
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String CLAIMS_ATTRIBUTE = "jwtClaims";
+    
+    private final JwtTokenProvider tokenProvider;
+    private final CustomUserDetailsService userDetailsService;
+    
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            try {
+                Claims claims = tokenProvider.parse(header.substring(7));
+                Optional<UserPrincipal> principal = userDetailsService.loadUserById(Long.valueOf(claims.getSubject()));
+                if (principal.isPresent()) {
+                    request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+                    
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal.get(), null, principal.get().getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Left unauthenticated; protected endpoints answer 401
+                logger.debug("Rejected JWT: " + e.getMessage());
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
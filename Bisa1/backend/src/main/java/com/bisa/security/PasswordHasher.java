@@ -0,0 +1,112 @@
+package com.bisa.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt work (signup hashing, sign-in verification) on a small fixed pool instead of Tomcat threads.
+// Only the hash computations run here; user lookups and saves belong on the task executor.
+// The queue is bounded: when it is full, submit fails fast with RejectedExecutionException (503 to the client)
+// rather than letting a signup/login burst pile up behind the CPU.
+@Component
+public class PasswordHasher {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+    
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private volatile String unknownUserHash;
+    
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${security.password.hash-threads:0}") int threads,
+                          @Value("${security.password.hash-queue:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    // A null hash (unknown user) is still compared against a throwaway hash, so the response time
+    // does not reveal which emails are registered
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (encodedPassword == null) {
+                passwordEncoder.matches(rawPassword, unknownUserHash());
+                return false;
+            }
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        });
+    }
+    
+    // True for hashes made with a lower BCrypt cost than the calibrated one
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+    
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("unknown-user-password");
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+    
+    private <T> CompletableFuture<T> submit(Callable<T> task) throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    // Picks the BCrypt cost whose hash time is closest to the target without exceeding it. One hash is timed
+    // at the minimum cost and the rest extrapolated, since each cost step doubles the work.
+    public static int calibrateBcryptCost(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration-warmup");
+        long startedAt = System.nanoTime();
+        probe.encode("calibration-probe");
+        double elapsedMillis = Math.max(0.1, (System.nanoTime() - startedAt) / 1_000_000.0);
+        
+        int cost = minCost;
+        double estimatedMillis = elapsedMillis;
+        while (cost < maxCost && estimatedMillis * 2 <= targetMillis) {
+            cost++;
+            estimatedMillis *= 2;
+        }
+        logger.info("BCrypt cost {} (~{} ms per hash, target {} ms)", cost, Math.round(estimatedMillis), targetMillis);
+        return cost;
+    }
+}
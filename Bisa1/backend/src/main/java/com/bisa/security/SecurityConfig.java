@@ -0,0 +1,53 @@
+package com.bisa.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+    
+    // Cost calibrated at startup to the target hash time; stored hashes with a lower cost are
+    // re-hashed on the next successful login (see CustomUserDetailsService)
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.target-hash-millis:250}") long targetMillis,
+                                           @Value("${security.password.min-cost:10}") int minCost,
+                                           @Value("${security.password.max-cost:14}") int maxCost) {
+        return new BCryptPasswordEncoder(PasswordHasher.calibrateBcryptCost(targetMillis, minCost, maxCost));
+    }
+    
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
+    }
+    
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtTokenProvider tokenProvider,
+                                           CustomUserDetailsService userDetailsService) throws Exception {
+        http
+            .csrf(csrf -> csrf.disable())
+            .cors(Customizer.withDefaults())
+            .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin())) // H2 console
+            .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(antMatcher("/auth/signin"), antMatcher("/auth/signup"), antMatcher("/auth/availability")).permitAll()
+                .requestMatchers(antMatcher("/h2-console/**")).permitAll()
+                .anyRequest().authenticated()
+            )
+            .addFilterBefore(new JwtAuthenticationFilter(tokenProvider, userDetailsService), UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+}
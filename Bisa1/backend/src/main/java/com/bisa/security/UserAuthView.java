@@ -0,0 +1,10 @@
+package com.bisa.security;
+
+// Only the columns sign-in and principal resolution need; avoids hydrating the User entity
+public interface UserAuthView {
+    Long getId();
+    String getName();
+    String getUsername();
+    String getEmail();
+    String getPassword();
+}
@@ -0,0 +1,101 @@
+package com.bisa.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounded cache of principals by user ID (JWT principal resolution) with an email -> ID index (sign-in).
+// Lock-free: reads are plain map lookups, since every authenticated request passes through here.
+// Each user is stored once; the oldest entries are evicted first once the cache holds `size` users.
+// Entries also expire after a TTL so a missed invalidation cannot keep stale credentials for long.
+// Safe to share: UserPrincipal is not a CredentialsContainer, so ProviderManager never erases the cached hash.
+@Component
+public class UserDetailsCache {
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByEmail = new ConcurrentHashMap<>();
+    // Insertion order for eviction; may still hold replaced or invalidated entries, which are skipped
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxUsers;
+    private final long ttlNanos;
+    
+    public UserDetailsCache(@Value("${security.user-cache.size:10000}") int size,
+                            @Value("${security.user-cache.ttl-minutes:15}") long ttlMinutes) {
+        this.maxUsers = Math.max(1, size);
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+    }
+    
+    public UserPrincipal getByEmail(String email) {
+        Long userId = idByEmail.get(email);
+        if (userId == null) {
+            return null;
+        }
+        Entry entry = byId.get(userId);
+        if (entry == null || !email.equals(entry.principal().getEmail())) {
+            idByEmail.remove(email, userId);
+            return null;
+        }
+        return live(entry);
+    }
+    
+    public UserPrincipal getById(Long userId) {
+        Entry entry = byId.get(userId);
+        return entry == null ? null : live(entry);
+    }
+    
+    public void put(UserPrincipal principal) {
+        Entry entry = new Entry(principal, System.nanoTime() + ttlNanos);
+        Entry previous = byId.put(principal.getId(), entry);
+        if (previous != null && !previous.principal().getEmail().equals(principal.getEmail())) {
+            idByEmail.remove(previous.principal().getEmail(), principal.getId());
+        }
+        idByEmail.put(principal.getEmail(), principal.getId());
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        evictOldest();
+    }
+    
+    // Call on any password or profile change
+    public void invalidate(Long userId) {
+        Entry entry = byId.remove(userId);
+        if (entry != null) {
+            idByEmail.remove(entry.principal().getEmail(), userId);
+        }
+    }
+    
+    private UserPrincipal live(Entry entry) {
+        if (entry.expiresAt() - System.nanoTime() < 0) {
+            remove(entry);
+            return null;
+        }
+        return entry.principal();
+    }
+    
+    // Removes both keys, but only if the entry has not been replaced meanwhile
+    private void remove(Entry entry) {
+        Long userId = entry.principal().getId();
+        if (byId.remove(userId, entry)) {
+            idByEmail.remove(entry.principal().getEmail(), userId);
+        }
+    }
+    
+    // The queue is also trimmed when stale entries pile up from repeated invalidate/put cycles
+    private void evictOldest() {
+        while (byId.size() > maxUsers || queued.get() > 2 * maxUsers) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            remove(oldest);
+        }
+    }
+    
+    private record Entry(UserPrincipal principal, long expiresAt) {
+    }
+}
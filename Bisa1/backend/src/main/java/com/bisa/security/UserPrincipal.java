@@ -30,16 +30,28 @@ public class UserPrincipal implements UserDetails {
         this.authorities = authorities;
     }
     
+    private static final List<GrantedAuthority> USER_AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+    
     public static UserPrincipal create(User user) {
-        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
-        
         return new UserPrincipal(
                 user.getId(),
                 user.getName(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                USER_AUTHORITIES
+        );
+    }
+    
+    public static UserPrincipal create(UserAuthView user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getName(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                USER_AUTHORITIES
         );
     }
     
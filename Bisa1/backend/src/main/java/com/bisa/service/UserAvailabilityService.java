@@ -0,0 +1,104 @@
+package com.bisa.service;
+
+import com.bisa.entity.User;
+import com.bisa.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// "Is this email/username taken?" answered from Bloom filters seeded from users at startup.
+// A filter miss means definitely available; only a hit falls through to the indexed exists query.
+// Values are lower-cased for the filters only, which can add false positives but never false negatives.
+@Service
+public class UserAvailabilityService {
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+    
+    private final UserRepository userRepository;
+    private final BloomFilter emails;
+    private final BloomFilter usernames;
+    private final int loadBatchSize;
+    // Until the seed load finishes every check goes to the database
+    private volatile boolean ready;
+    private final AtomicBoolean capacityWarned = new AtomicBoolean();
+    
+    public UserAvailabilityService(UserRepository userRepository,
+                                   @Value("${users.availability.expected-users:1000000}") long expectedUsers,
+                                   @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${users.availability.load-batch-size:10000}") int loadBatchSize) {
+        this.userRepository = userRepository;
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.loadBatchSize = loadBatchSize;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startedAt = System.currentTimeMillis();
+        long afterId = 0;
+        long loaded = 0;
+        List<Object[]> batch;
+        do {
+            batch = userRepository.findLoginNamesAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : batch) {
+                afterId = ((Number) row[0]).longValue();
+                add(emails, (String) row[1]);
+                add(usernames, (String) row[2]);
+            }
+            loaded += batch.size();
+        } while (batch.size() == loadBatchSize);
+        ready = true;
+        logger.info("Loaded signup availability filters: {} users in {} ms", loaded, System.currentTimeMillis() - startedAt);
+        warnIfOverCapacity();
+    }
+    
+    public boolean isEmailTaken(String email) {
+        if (email == null || email.isBlank()) {
+            return false;
+        }
+        return (!ready || emails.mightContain(normalize(email))) && userRepository.existsByEmail(email);
+    }
+    
+    public boolean isUsernameTaken(String username) {
+        if (username == null || username.isBlank()) {
+            return false;
+        }
+        return (!ready || usernames.mightContain(normalize(username))) && userRepository.existsByUsername(username);
+    }
+    
+    // Signups made while the seed load is running are added to the same filters, so none are lost
+    public void userRegistered(User user) {
+        add(emails, user.getEmail());
+        add(usernames, user.getUsername());
+        warnIfOverCapacity();
+    }
+    
+    // Filters are per-process and only fed by this instance's signups, so a user created elsewhere is a
+    // false negative until restart. A signup that hits the unique constraint adds the values it collided on.
+    public void loginTaken(String email, String username) {
+        add(emails, email);
+        add(usernames, username);
+    }
+    
+    private void add(BloomFilter filter, String value) {
+        if (value != null) {
+            filter.add(normalize(value));
+        }
+    }
+    
+    private void warnIfOverCapacity() {
+        if (ready && emails.isOverCapacity() && capacityWarned.compareAndSet(false, true)) {
+            logger.warn("Signup availability filters exceed users.availability.expected-users; false positives will rise");
+        }
+    }
+    
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
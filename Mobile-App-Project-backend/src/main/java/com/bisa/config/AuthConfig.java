@@ -0,0 +1,58 @@
+package com.bisa.config;
+
+import com.bisa.service.FirebaseIdTokenVerifier;
+import com.bisa.service.IdTokenCache;
+import com.bisa.service.IdTokenVerifier;
+import com.bisa.service.LocalIdTokenVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+
+@Configuration
+public class AuthConfig {
+    @Value("${auth.verifier:firebase}")
+    private String verifier;
+
+    // Public keys for the local verifier: a JWKS file, Google's x509 certificate map, or one PEM key
+    @Value("${auth.local.key-path:}")
+    private String localKeyPath;
+
+    @Value("${auth.local.project-id:}")
+    private String localProjectId;
+
+    @Value("${auth.local.clock-skew-seconds:60}")
+    private long clockSkewSeconds;
+
+    @Value("${auth.token-cache.size:100000}")
+    private long cacheSize;
+
+    @Value("${auth.token-cache.max-ttl-minutes:60}")
+    private long cacheMaxTtlMinutes;
+
+    @Value("${auth.token-cache.rejected-ttl-seconds:60}")
+    private long rejectedTtlSeconds;
+
+    // "firebase" verifies through the Admin SDK; "local" checks signatures offline against configured keys
+    @Bean
+    public IdTokenVerifier idTokenVerifier(ObjectMapper objectMapper, MeterRegistry registry)
+            throws IOException, GeneralSecurityException {
+        IdTokenVerifier delegate;
+        if ("local".equals(verifier)) {
+            if (localKeyPath.isBlank()) {
+                throw new IllegalStateException("auth.local.key-path is required when auth.verifier=local");
+            }
+            delegate = LocalIdTokenVerifier.fromFile(Path.of(localKeyPath), localProjectId, objectMapper, clockSkewSeconds);
+        } else if ("firebase".equals(verifier)) {
+            delegate = new FirebaseIdTokenVerifier();
+        } else {
+            throw new IllegalStateException("Unknown auth.verifier: " + verifier);
+        }
+        return new IdTokenCache(delegate, registry, cacheSize, cacheMaxTtlMinutes, rejectedTtlSeconds);
+    }
+}
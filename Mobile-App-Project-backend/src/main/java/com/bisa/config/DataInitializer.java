@@ -58,9 +58,10 @@ public class DataInitializer {
                 for (int i = 0; i < 50; i++) {
                     User follower = users.get(i);
                     int follows = 1 + rand.nextInt(10);
+                    HashSet<Long> followed = new HashSet<>();
                     for (int j = 0; j < follows; j++) {
                         User following = users.get(rand.nextInt(users.size()));
-                        if (!follower.getId().equals(following.getId())) {
+                        if (!follower.getId().equals(following.getId()) && followed.add(following.getId())) {
                             Follow follow = new Follow();
                             follow.setFollower(follower);
                             follow.setFollowedUser(following);
@@ -0,0 +1,107 @@
+package com.bisa.config;
+
+import com.bisa.model.CompressedTextConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Moves fact-check text written before compression from the legacy TEXT columns into the
+// deflated columns, one keyset batch at a time, and logs how much space was saved
+@Component
+public class FactCheckCompressionMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(FactCheckCompressionMigration.class);
+    private static final String[] TEXT_COLUMNS = {"content_analyzed", "ai_analysis", "sources_cited", "corrections", "reasoning"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${factcheck.compression.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${factcheck.compression.batch-size:500}")
+    private int batchSize;
+
+    public FactCheckCompressionMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup || !hasLegacyColumns()) {
+            return;
+        }
+
+        String legacyColumns = String.join(", ", TEXT_COLUMNS);
+        String notNull = String.join(" IS NOT NULL OR ", TEXT_COLUMNS) + " IS NOT NULL";
+        String select = "SELECT id, " + legacyColumns + " FROM fact_check WHERE id > ? AND (" + notNull + ") ORDER BY id LIMIT ?";
+        StringBuilder update = new StringBuilder("UPDATE fact_check SET ");
+        for (String column : TEXT_COLUMNS) {
+            update.append(column).append("_deflated = ?, ").append(column).append(" = NULL, ");
+        }
+        update.setLength(update.length() - 2);
+        update.append(" WHERE id = ?");
+
+        long afterId = 0;
+        long rows = 0;
+        long rawBytes = 0;
+        long compressedBytes = 0;
+        List<Map<String, Object>> batch;
+        do {
+            batch = jdbcTemplate.queryForList(select, afterId, batchSize);
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            for (Map<String, Object> row : batch) {
+                Object[] values = new Object[TEXT_COLUMNS.length * 2 + 1];
+                int i = 0;
+                for (String column : TEXT_COLUMNS) {
+                    String text = (String) row.get(column);
+                    byte[] deflated = text != null ? CompressedTextConverter.compress(text) : null;
+                    if (text != null) {
+                        rawBytes += text.getBytes(StandardCharsets.UTF_8).length;
+                        compressedBytes += deflated.length;
+                    }
+                    values[i++] = deflated;
+                }
+                afterId = ((Number) row.get("id")).longValue();
+                values[i] = afterId;
+                updates.add(values);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(update.toString(), updates);
+                rows += updates.size();
+            }
+        } while (batch.size() == batchSize);
+
+        if (rows > 0) {
+            logger.info("Compressed fact check text for {} rows: {} bytes -> {} bytes ({}% saved)",
+                    rows, rawBytes, compressedBytes, rawBytes == 0 ? 0 : 100 - (compressedBytes * 100 / rawBytes));
+        }
+    }
+
+    private boolean hasLegacyColumns() {
+        Boolean present = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // H2 reports unquoted identifiers in upper case, PostgreSQL in lower case
+            for (String column : new String[]{"ai_analysis", "AI_ANALYSIS"}) {
+                String table = Character.isUpperCase(column.charAt(0)) ? "FACT_CHECK" : "fact_check";
+                try (ResultSet columns = metaData.getColumns(null, null, table, column)) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(present);
+    }
+}
@@ -1,10 +1,13 @@
 package com.bisa.config;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
+import com.bisa.service.IdTokenVerifier;
+import com.bisa.service.RateLimiter;
+import com.bisa.service.VerifiedIdToken;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -24,27 +27,36 @@ import java.io.IOException;
 @EnableWebSecurity
 public class SecurityConfig {
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, IdTokenVerifier idTokenVerifier, RateLimiter rateLimiter) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .headers(headers -> headers.frameOptions().sameOrigin()) // Secure H2 console access
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/hello/health").permitAll() // Allow health check without auth
+                .requestMatchers("/actuator/health").permitAll() // Probes only; metrics need an authenticated caller
                 .requestMatchers("/api/**").authenticated() // Require auth for all other API endpoints
                 .requestMatchers("/h2-console/**").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(new FirebaseAuthFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new FirebaseAuthFilter(idTokenVerifier), UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new RateLimitFilter(rateLimiter), FirebaseAuthFilter.class);
         return http.build();
     }
 
     public static class FirebaseAuthFilter extends OncePerRequestFilter {
+        private final IdTokenVerifier idTokenVerifier;
+
+        public FirebaseAuthFilter(IdTokenVerifier idTokenVerifier) {
+            this.idTokenVerifier = idTokenVerifier;
+        }
+
         @Override
         protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
                 throws ServletException, IOException {
             String uri = request.getRequestURI();
-            if (uri.startsWith("/h2-console") || uri.equals("/api/hello/health")) {
+            if (uri.startsWith("/h2-console") || uri.equals("/api/hello/health")
+                    || uri.equals("/actuator/health")) {
                 filterChain.doFilter(request, response);
                 return;
             }
@@ -52,9 +64,9 @@ public class SecurityConfig {
             if (header != null && header.startsWith("Bearer ")) {
                 String token = header.substring(7);
                 try {
-                    FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-                    request.setAttribute("firebaseToken", decodedToken);
-                    Authentication auth = new UsernamePasswordAuthenticationToken(decodedToken.getUid(), null, null);
+                    VerifiedIdToken decodedToken = idTokenVerifier.verify(token);
+                    request.setAttribute("idToken", decodedToken);
+                    Authentication auth = new UsernamePasswordAuthenticationToken(decodedToken.uid(), null, null);
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 } catch (Exception e) {
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -69,4 +81,50 @@ public class SecurityConfig {
             filterChain.doFilter(request, response);
         }
     }
+
+    // Per-caller token buckets by route group, keyed by the UID set by FirebaseAuthFilter
+    // (client address for the few unauthenticated routes)
+    public static class RateLimitFilter extends OncePerRequestFilter {
+        private final RateLimiter rateLimiter;
+
+        public RateLimitFilter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String group = routeGroup(request.getMethod(), request.getRequestURI());
+            if (group != null) {
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                String caller = auth != null ? auth.getName() : "ip:" + request.getRemoteAddr();
+                long waitNanos = rateLimiter.acquire(group, caller);
+                if (waitNanos > 0) {
+                    long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                    response.getWriter().write("Too many requests");
+                    return;
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        // Fact checks call the AI service and upvotes/shares contend on the post row, so both get their own budgets
+        static String routeGroup(String method, String uri) {
+            if (!uri.startsWith("/api/") || uri.equals("/api/hello/health") || HttpMethod.OPTIONS.matches(method)) {
+                return null;
+            }
+            if (HttpMethod.POST.matches(method)) {
+                if (uri.endsWith("/fact-check")) {
+                    return RateLimiter.GROUP_FACT_CHECK;
+                }
+                if (uri.endsWith("/upvote") || uri.endsWith("/share")) {
+                    return RateLimiter.GROUP_VOTE;
+                }
+            }
+            return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                    ? RateLimiter.GROUP_READ : RateLimiter.GROUP_WRITE;
+        }
+    }
 } 
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.bisa.controller;
 
 import com.bisa.model.Comment;
 import com.bisa.repository.CommentRepository;
+import com.bisa.service.UserStatsService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Optional;
@@ -11,8 +13,10 @@ import java.util.Optional;
 @RequestMapping("/api/comments")
 public class CommentController {
     private final CommentRepository commentRepository;
-    public CommentController(CommentRepository commentRepository) {
+    private final UserStatsService userStatsService;
+    public CommentController(CommentRepository commentRepository, UserStatsService userStatsService) {
         this.commentRepository = commentRepository;
+        this.userStatsService = userStatsService;
     }
 
     @GetMapping
@@ -27,9 +31,12 @@ public class CommentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Transactional
     @PostMapping
     public Comment createComment(@RequestBody Comment comment) {
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        userStatsService.commentCreated(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -42,10 +49,13 @@ public class CommentController {
         return ResponseEntity.ok(commentRepository.save(comment));
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable Long id) {
-        if (!commentRepository.existsById(id)) return ResponseEntity.notFound().build();
-        commentRepository.deleteById(id);
+        Optional<Comment> commentOpt = commentRepository.findById(id);
+        if (commentOpt.isEmpty()) return ResponseEntity.notFound().build();
+        commentRepository.delete(commentOpt.get());
+        userStatsService.commentDeleted(commentOpt.get());
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
@@ -4,7 +4,10 @@ import com.bisa.model.Follow;
 import com.bisa.model.User;
 import com.bisa.repository.FollowRepository;
 import com.bisa.repository.UserRepository;
+import com.bisa.service.FollowGraphService;
+import com.bisa.service.UserStatsService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Optional;
@@ -14,10 +17,15 @@ import java.util.Optional;
 public class FollowController {
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final FollowGraphService followGraphService;
     
-    public FollowController(FollowRepository followRepository, UserRepository userRepository) {
+    public FollowController(FollowRepository followRepository, UserRepository userRepository,
+                            UserStatsService userStatsService, FollowGraphService followGraphService) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
+        this.userStatsService = userStatsService;
+        this.followGraphService = followGraphService;
     }
 
     @GetMapping
@@ -32,11 +40,16 @@ public class FollowController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Transactional
     @PostMapping
     public Follow createFollow(@RequestBody Follow follow) {
-        return followRepository.save(follow);
+        Follow saved = followRepository.save(follow);
+        userStatsService.followCreated(saved);
+        followGraphService.followCreated(saved);
+        return saved;
     }
 
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Follow> updateFollow(@PathVariable Long id, @RequestBody Follow followDetails) {
         Optional<Follow> followOpt = followRepository.findById(id);
@@ -46,17 +59,29 @@ public class FollowController {
         follow.setType(followDetails.getType());
         
         // Update followed user if provided
-        if (followDetails.getFollowedUser() != null) {
+        boolean retarget = followDetails.getFollowedUser() != null;
+        User previousFollowedUser = follow.getFollowedUser();
+        if (retarget) {
+            followGraphService.followDeleted(follow);
             follow.setFollowedUser(followDetails.getFollowedUser());
         }
         
-        return ResponseEntity.ok(followRepository.save(follow));
+        Follow saved = followRepository.save(follow);
+        if (retarget) {
+            userStatsService.followRetargeted(saved, previousFollowedUser);
+            followGraphService.followCreated(saved);
+        }
+        return ResponseEntity.ok(saved);
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFollow(@PathVariable Long id) {
-        if (!followRepository.existsById(id)) return ResponseEntity.notFound().build();
-        followRepository.deleteById(id);
+        Optional<Follow> followOpt = followRepository.findById(id);
+        if (followOpt.isEmpty()) return ResponseEntity.notFound().build();
+        followRepository.delete(followOpt.get());
+        userStatsService.followDeleted(followOpt.get());
+        followGraphService.followDeleted(followOpt.get());
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
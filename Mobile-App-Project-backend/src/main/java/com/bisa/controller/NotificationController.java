@@ -1,23 +1,29 @@
 package com.bisa.controller;
 
+import com.bisa.dto.CursorPage;
+import com.bisa.dto.NotificationView;
 import com.bisa.model.Notification;
 import com.bisa.repository.NotificationRepository;
+import com.bisa.service.NotificationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
     private final NotificationRepository notificationRepository;
-    public NotificationController(NotificationRepository notificationRepository) {
+    private final NotificationService notificationService;
+    public NotificationController(NotificationRepository notificationRepository, NotificationService notificationService) {
         this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
     }
 
+    // Scoped to one user's inbox; the same page as GET /api/users/{userId}/notifications
     @GetMapping
-    public List<Notification> getAllNotifications() {
-        return notificationRepository.findAll();
+    public CursorPage<NotificationView> getAllNotifications(@RequestParam Long userId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        return notificationService.getInbox(userId, cursor, UserNotificationController.pageSize(size));
     }
 
     @GetMapping("/{id}")
@@ -29,25 +35,19 @@ public class NotificationController {
 
     @PostMapping
     public Notification createNotification(@RequestBody Notification notification) {
-        return notificationRepository.save(notification);
+        return notificationService.create(notification);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Notification> updateNotification(@PathVariable Long id, @RequestBody Notification notificationDetails) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(id);
-        if (notificationOpt.isEmpty()) return ResponseEntity.notFound().build();
-        Notification notification = notificationOpt.get();
-        notification.setType(notificationDetails.getType());
-        notification.setMessage(notificationDetails.getMessage());
-        notification.setTimestamp(notificationDetails.getTimestamp());
-        notification.setRead(notificationDetails.isRead());
-        return ResponseEntity.ok(notificationRepository.save(notification));
+        return notificationService.update(id, notificationDetails)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
-        if (!notificationRepository.existsById(id)) return ResponseEntity.notFound().build();
-        notificationRepository.deleteById(id);
+        if (!notificationService.delete(id)) return ResponseEntity.notFound().build();
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
@@ -9,10 +9,19 @@ import com.bisa.model.Share;
 import com.bisa.repository.ShareRepository;
 import com.bisa.dto.ShareRequest;
 import com.bisa.dto.PostDetailResponse;
+import com.bisa.dto.FactCheckEvent;
+import com.bisa.dto.FactCheckStatus;
+import com.bisa.service.FactCheckEventPublisher;
 import com.bisa.service.FactCheckService;
 import com.bisa.service.PostDetailService;
+import com.bisa.service.UserStatsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -24,16 +33,21 @@ public class PostController {
     private final CommentRepository commentRepository;
     private final ShareRepository shareRepository;
     private final FactCheckService factCheckService;
+    private final FactCheckEventPublisher factCheckEventPublisher;
     private final PostDetailService postDetailService;
+    private final UserStatsService userStatsService;
 
     public PostController(PostRepository postRepository, CommentRepository commentRepository, 
                         ShareRepository shareRepository, FactCheckService factCheckService,
-                        PostDetailService postDetailService) {
+                        FactCheckEventPublisher factCheckEventPublisher, PostDetailService postDetailService,
+                        UserStatsService userStatsService) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.shareRepository = shareRepository;
         this.factCheckService = factCheckService;
+        this.factCheckEventPublisher = factCheckEventPublisher;
         this.postDetailService = postDetailService;
+        this.userStatsService = userStatsService;
     }
 
     @GetMapping
@@ -90,16 +104,21 @@ public class PostController {
         return ResponseEntity.ok(comments);
     }
 
+    @Transactional
     @PostMapping
     public Post createPost(@RequestBody Post post) {
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        userStatsService.postCreated(saved);
+        return saved;
     }
 
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Post> updatePost(@PathVariable Long id, @RequestBody Post postDetails) {
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) return ResponseEntity.notFound().build();
         Post post = postOpt.get();
+        int previousUpvotes = post.getUpvotes();
         post.setQuestion(postDetails.getQuestion());
         post.setAnswer(postDetails.getAnswer());
         post.setMediaUrl(postDetails.getMediaUrl());
@@ -107,23 +126,32 @@ public class PostController {
         post.setUpvotes(postDetails.getUpvotes());
         post.setShares(postDetails.getShares());
         post.setCreatedAt(postDetails.getCreatedAt());
-        return ResponseEntity.ok(postRepository.save(post));
+        Post saved = postRepository.save(post);
+        userStatsService.upvotesChanged(saved, saved.getUpvotes() - previousUpvotes);
+        userStatsService.postUpdated(saved);
+        return ResponseEntity.ok(saved);
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable Long id) {
-        if (!postRepository.existsById(id)) return ResponseEntity.notFound().build();
-        postRepository.deleteById(id);
+        Optional<Post> postOpt = postRepository.findById(id);
+        if (postOpt.isEmpty()) return ResponseEntity.notFound().build();
+        postRepository.delete(postOpt.get());
+        userStatsService.postDeleted(postOpt.get());
         return ResponseEntity.noContent().build();
     }
 
+    @Transactional
     @PostMapping("/{id}/upvote")
     public ResponseEntity<Post> upvotePost(@PathVariable Long id) {
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) return ResponseEntity.notFound().build();
         Post post = postOpt.get();
         post.setUpvotes(post.getUpvotes() + 1);
-        return ResponseEntity.ok(postRepository.save(post));
+        Post saved = postRepository.save(post);
+        userStatsService.upvotesChanged(saved, 1);
+        return ResponseEntity.ok(saved);
     }
 
     @PostMapping("/{id}/share")
@@ -134,6 +162,7 @@ public class PostController {
         Post post = postOpt.get();
         post.setShares(post.getShares() + 1);
         Post savedPost = postRepository.save(post);
+        userStatsService.postUpdated(savedPost);
         
         // If share request details are provided, save the share record
         if (shareRequest != null) {
@@ -185,24 +214,36 @@ public class PostController {
 
     @GetMapping("/{id}/fact-check/status")
     public ResponseEntity<Map<String, Object>> getFactCheckStatus(@PathVariable Long id) {
-        Optional<Post> postOpt = postRepository.findById(id);
-        if (postOpt.isEmpty()) {
+        if (!postRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
         
-        Optional<FactCheck> latestCheck = factCheckService.getLatestFactCheck(postOpt.get());
+        Optional<FactCheckStatus> latestCheck = factCheckService.getLatestStatus(id);
         
-        Map<String, Object> status = Map.of(
-            "hasFactCheck", latestCheck.isPresent(),
-            "lastChecked", latestCheck.map(FactCheck::getCheckedAt).orElse(null),
-            "validityStatus", latestCheck.map(FactCheck::getValidityStatus).orElse("NOT_CHECKED"),
-            "accuracyScore", latestCheck.map(FactCheck::getAccuracyScore).orElse(null),
-            "confidenceLevel", latestCheck.map(FactCheck::getConfidenceLevel).orElse(null)
-        );
+        Map<String, Object> status = new HashMap<>();
+        status.put("hasFactCheck", latestCheck.isPresent());
+        status.put("lastChecked", latestCheck.map(FactCheckStatus::getCheckedAt).orElse(null));
+        status.put("validityStatus", latestCheck.map(FactCheckStatus::getValidityStatus).orElse("NOT_CHECKED"));
+        status.put("accuracyScore", latestCheck.map(FactCheckStatus::getAccuracyScore).orElse(null));
+        status.put("confidenceLevel", latestCheck.map(FactCheckStatus::getConfidenceLevel).orElse(null));
         
         return ResponseEntity.ok(status);
     }
 
+    // Live fact-check progress; replaces polling the status endpoint
+    @GetMapping(value = "/{id}/fact-check/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<FactCheckEvent>>> streamFactCheck(@PathVariable Long id) {
+        Optional<Post> postOpt = postRepository.findById(id);
+        if (postOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        FactCheckEvent snapshot = FactCheckEvent.current(id, factCheckService.getLatestFactCheck(postOpt.get()).orElse(null));
+        Flux<ServerSentEvent<FactCheckEvent>> events = factCheckEventPublisher.watch(id, snapshot)
+                .map(event -> ServerSentEvent.builder(event).event(event.getState()).build());
+        return ResponseEntity.ok(events);
+    }
+
     @GetMapping("/{id}/shares")
     public ResponseEntity<List<Share>> getPostShares(@PathVariable Long id) {
         Optional<Post> postOpt = postRepository.findById(id);
@@ -242,12 +283,14 @@ public class PostController {
         return ResponseEntity.ok(comments);
     }
 
+    @Transactional
     @PostMapping("/{id}/comments")
     public ResponseEntity<Comment> addCommentToPost(@PathVariable Long id, @RequestBody Comment comment) {
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) return ResponseEntity.notFound().build();
         comment.setPost(postOpt.get());
         Comment saved = commentRepository.save(comment);
+        userStatsService.commentCreated(saved);
         return ResponseEntity.ok(saved);
     }
 } 
\ No newline at end of file
@@ -3,12 +3,24 @@ package com.bisa.controller;
 import com.bisa.model.User;
 import com.bisa.repository.UserRepository;
 import com.bisa.dto.UserProfileResponse;
+import com.bisa.dto.CursorPage;
+import com.bisa.dto.FollowSuggestion;
+import com.bisa.dto.UserCard;
+import com.bisa.service.FollowSuggestionService;
+import com.bisa.repository.UserRepositoryCustom;
+import com.bisa.service.UserCardCache;
+import com.bisa.service.UserIdentityCache;
 import com.bisa.service.UserProfileService;
+import com.bisa.service.UserSearchService;
+import com.bisa.service.UserService;
+import com.bisa.service.UserStatsService;
+import com.bisa.service.VerifiedIdToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,6 +30,8 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_IDS = 500;
 
     @Autowired
     private UserRepository userRepository;
@@ -25,9 +39,75 @@ public class UserController {
     @Autowired
     private UserProfileService userProfileService;
 
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private UserCardCache userCardCache;
+
+    // Keyset-paginated public directory; pass the previous page's nextCursor to continue
     @GetMapping
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public ResponseEntity<CursorPage<UserCard>> getUserDirectory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isEmpty() ? 0 : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UserCard> users = userRepository.findCardsAfter(afterId, PageRequest.of(0, pageSize));
+        String nextCursor = users.size() == pageSize ? String.valueOf(users.get(users.size() - 1).getId()) : null;
+        return ResponseEntity.ok(new CursorPage<>(users, nextCursor));
+    }
+
+    // Name prefix and substring search, served from the in-memory trigram index.
+    // X-Search-Truncated: true means the fragment was too common to scan fully and more users may match.
+    @GetMapping("/search")
+    public ResponseEntity<List<UserCard>> searchUsers(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        UserSearchService.Results results = userSearchService.search(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok()
+                .header("X-Search-Truncated", String.valueOf(results.truncated()))
+                .body(results.users());
+    }
+
+    // Compact cards for many users at once, e.g. the authors and commenters on a screen
+    @GetMapping("/batch")
+    public ResponseEntity<List<UserCard>> getUserCards(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(lookUpCards(ids));
+    }
+
+    // Same as the GET variant, for ID lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserCard>> getUserCardsForList(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(lookUpCards(ids));
+    }
+
+    private List<UserCard> lookUpCards(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return userCardCache.getCards(ids);
     }
 
     @GetMapping("/{id}")
@@ -37,9 +117,13 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Transactional
     @PostMapping
     public User createUser(@RequestBody User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userStatsService.userCreated(saved);
+        userSearchService.userSaved(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -54,47 +138,49 @@ public class UserController {
             existingUser.setBio(userDetails.getBio());
             existingUser.setLocation(userDetails.getLocation());
             existingUser.setWebsite(userDetails.getWebsite());
-            return ResponseEntity.ok(userRepository.save(existingUser));
+            return ResponseEntity.ok(userService.save(existingUser));
         }
         return ResponseEntity.notFound().build();
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         Optional<User> user = userRepository.findById(id);
         if (user.isPresent()) {
             userRepository.delete(user.get());
+            userStatsService.userDeleted(id);
+            userIdentityCache.invalidate(id);
+            userCardCache.invalidate(id);
+            userSearchService.userDeleted(id);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
 
     @PostMapping("/firebase")
-    public ResponseEntity<Map<String, Object>> createUserFromFirebase(@RequestBody Map<String, String> request) {
+    public ResponseEntity<Map<String, Object>> createUserFromFirebase(
+            @RequestBody Map<String, String> request,
+            @RequestAttribute(name = "idToken", required = false) VerifiedIdToken idToken) {
         String email = request.get("email");
         String name = request.get("name");
         String avatar = request.get("avatar");
-        
-        // Check if user already exists
-        Optional<User> existingUser = userRepository.findByEmail(email);
-        if (existingUser.isPresent()) {
-            return ResponseEntity.ok(Map.of(
-                "message", "User already exists",
-                "user", existingUser.get()
-            ));
+        String uid = null;
+        if (idToken != null && idToken.email() != null) {
+            // The account is bound to the token's verified email, never to one supplied in the body
+            if (email != null && !email.isBlank() && !email.trim().equalsIgnoreCase(idToken.email())) {
+                throw new IllegalArgumentException("Email does not match the signed-in account");
+            }
+            email = idToken.email();
+            uid = idToken.uid();
         }
         
-        // Create new user
-        User newUser = new User();
-        newUser.setEmail(email);
-        newUser.setName(name);
-        newUser.setAvatar(avatar);
-        
-        User savedUser = userRepository.save(newUser);
+        // Cached for returning users; otherwise a single upsert on the unique email
+        UserRepositoryCustom.Upserted result = userService.signIn(uid, email, name, avatar);
         
         return ResponseEntity.ok(Map.of(
-            "message", "User created successfully",
-            "user", savedUser
+            "message", result.created() ? "User created successfully" : "User already exists",
+            "user", result.user()
         ));
     }
 
@@ -167,22 +253,35 @@ public class UserController {
     @GetMapping("/{id}/followers")
     public ResponseEntity<Page<UserProfileResponse>> getUserFollowers(
             @PathVariable Long id,
+            @RequestParam(required = false) Long currentUserId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserProfileResponse> followers = userProfileService.getFollowers(id, pageable);
+        Page<UserProfileResponse> followers = userProfileService.getFollowers(id, currentUserId, pageable);
         return ResponseEntity.ok(followers);
     }
 
     @GetMapping("/{id}/following")
     public ResponseEntity<Page<UserProfileResponse>> getUserFollowing(
             @PathVariable Long id,
+            @RequestParam(required = false) Long currentUserId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserProfileResponse> following = userProfileService.getFollowing(id, pageable);
+        Page<UserProfileResponse> following = userProfileService.getFollowing(id, currentUserId, pageable);
         return ResponseEntity.ok(following);
     }
+
+    // Who to follow: friends-of-friends ranked by mutual follows, served from memory. Empty on a user's
+    // first visit while their suggestions are computed; limit is capped at suggestions.size.
+    @GetMapping("/{id}/suggestions")
+    public ResponseEntity<List<FollowSuggestion>> getFollowSuggestions(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        int cappedLimit = Math.max(1, Math.min(limit, followSuggestionService.maxSuggestions()));
+        return ResponseEntity.ok(followSuggestionService.getSuggestions(id, cappedLimit));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.bisa.controller;
+
+import com.bisa.dto.CursorPage;
+import com.bisa.dto.NotificationView;
+import com.bisa.service.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users/{userId}/notifications")
+public class UserNotificationController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationService notificationService;
+
+    public UserNotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    // Newest first; pass the previous page's nextCursor to continue
+    @GetMapping
+    public ResponseEntity<CursorPage<NotificationView>> getInbox(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(notificationService.getInbox(userId, cursor, pageSize(size)));
+    }
+
+    // Badge count read from the user's stats row rather than counted
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Object>> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(userId)));
+    }
+
+    // Marks every notification up to and including the given item's cursor read; all of them without one
+    @PostMapping("/read")
+    public ResponseEntity<Map<String, Object>> markRead(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor) {
+        int marked = notificationService.markRead(userId, cursor);
+        return ResponseEntity.ok(Map.of("marked", marked));
+    }
+
+    static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
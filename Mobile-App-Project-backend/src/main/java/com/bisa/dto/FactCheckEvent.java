@@ -0,0 +1,94 @@
+package com.bisa.dto;
+
+import com.bisa.model.FactCheck;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FactCheckEvent {
+    public static final String CURRENT = "CURRENT";     // snapshot sent when a watcher subscribes
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private Long postId;
+    private String state;
+    private String message;
+    private Long factCheckId;
+    private String validityStatus;
+    private Double accuracyScore;
+    private String confidenceLevel;
+    private Instant timestamp;
+
+    public FactCheckEvent() {
+        this.timestamp = Instant.now();
+    }
+
+    public FactCheckEvent(Long postId, String state, String message) {
+        this();
+        this.postId = postId;
+        this.state = state;
+        this.message = message;
+    }
+
+    public static FactCheckEvent current(Long postId, FactCheck latest) {
+        FactCheckEvent event = new FactCheckEvent(postId, CURRENT, latest != null ? latest.getSummary() : "NOT_CHECKED");
+        event.applyResult(latest);
+        return event;
+    }
+
+    public static FactCheckEvent running(Long postId, String message) {
+        return new FactCheckEvent(postId, RUNNING, message);
+    }
+
+    public static FactCheckEvent completed(Long postId, FactCheck factCheck) {
+        FactCheckEvent event = new FactCheckEvent(postId, COMPLETED, factCheck.getSummary());
+        event.applyResult(factCheck);
+        return event;
+    }
+
+    public static FactCheckEvent failed(Long postId, String message) {
+        return new FactCheckEvent(postId, FAILED, message);
+    }
+
+    private void applyResult(FactCheck factCheck) {
+        if (factCheck == null) {
+            return;
+        }
+        this.factCheckId = factCheck.getId();
+        this.validityStatus = factCheck.getValidityStatus();
+        this.accuracyScore = factCheck.getAccuracyScore();
+        this.confidenceLevel = factCheck.getConfidenceLevel();
+    }
+
+    @JsonIgnore
+    public boolean isTerminal() {
+        return COMPLETED.equals(state) || FAILED.equals(state);
+    }
+
+    // Getters and Setters
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Long getFactCheckId() { return factCheckId; }
+    public void setFactCheckId(Long factCheckId) { this.factCheckId = factCheckId; }
+
+    public String getValidityStatus() { return validityStatus; }
+    public void setValidityStatus(String validityStatus) { this.validityStatus = validityStatus; }
+
+    public Double getAccuracyScore() { return accuracyScore; }
+    public void setAccuracyScore(Double accuracyScore) { this.accuracyScore = accuracyScore; }
+
+    public String getConfidenceLevel() { return confidenceLevel; }
+    public void setConfidenceLevel(String confidenceLevel) { this.confidenceLevel = confidenceLevel; }
+
+    public Instant getTimestamp() { return timestamp; }
+    public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+}
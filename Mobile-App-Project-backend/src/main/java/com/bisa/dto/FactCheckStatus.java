@@ -0,0 +1,50 @@
+package com.bisa.dto;
+
+import java.time.Instant;
+
+// Scalar-only view of a fact check, for status and badge queries that never need the analysis text
+public class FactCheckStatus {
+    private final Long id;
+    private final String validityStatus;
+    private final Double accuracyScore;
+    private final String confidenceLevel;
+    private final String checkedBy;
+    private final Instant checkedAt;
+
+    public FactCheckStatus(Long id, String validityStatus, Double accuracyScore, String confidenceLevel,
+                           String checkedBy, Instant checkedAt) {
+        this.id = id;
+        this.validityStatus = validityStatus;
+        this.accuracyScore = accuracyScore;
+        this.confidenceLevel = confidenceLevel;
+        this.checkedBy = checkedBy;
+        this.checkedAt = checkedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getValidityStatus() { return validityStatus; }
+    public Double getAccuracyScore() { return accuracyScore; }
+    public String getConfidenceLevel() { return confidenceLevel; }
+    public String getCheckedBy() { return checkedBy; }
+    public Instant getCheckedAt() { return checkedAt; }
+
+    // Same format as FactCheck.getSummary()
+    public String getSummary() {
+        if (validityStatus == null) {
+            return "Fact check not available";
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("Status: ").append(validityStatus);
+
+        if (accuracyScore != null) {
+            summary.append(" | Accuracy: ").append(String.format("%.1f%%", accuracyScore * 100));
+        }
+
+        if (confidenceLevel != null) {
+            summary.append(" | Confidence: ").append(confidenceLevel);
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bisa.dto;
+
+// A suggested account to follow, scored by how many of the viewer's follows already follow it
+public class FollowSuggestion {
+    private final Long userId;
+    private final String name;
+    private final String avatar;
+    private final String credentials;
+    private final int mutualCount;
+
+    public FollowSuggestion(Long userId, String name, String avatar, String credentials, int mutualCount) {
+        this.userId = userId;
+        this.name = name;
+        this.avatar = avatar;
+        this.credentials = credentials;
+        this.mutualCount = mutualCount;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getName() { return name; }
+    public String getAvatar() { return avatar; }
+    public String getCredentials() { return credentials; }
+    public int getMutualCount() { return mutualCount; }
+}
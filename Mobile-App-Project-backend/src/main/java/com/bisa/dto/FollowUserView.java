@@ -0,0 +1,15 @@
+package com.bisa.dto;
+
+import java.time.Instant;
+
+// User columns joined from a follow row, for follower and following pages
+public interface FollowUserView {
+    Long getId();
+    String getName();
+    String getAvatar();
+    String getCredentials();
+    String getBio();
+    String getLocation();
+    String getWebsite();
+    Instant getCreatedAt();
+}
@@ -0,0 +1,26 @@
+package com.bisa.dto;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+// Keyset position in a newest-first inbox, written as "<ISO-8601 timestamp>_<id>"
+public record NotificationCursor(Instant timestamp, Long id) {
+
+    public static NotificationCursor parse(String cursor) {
+        int separator = cursor.lastIndexOf('_');
+        try {
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new NotificationCursor(Instant.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Null for legacy rows without a timestamp, which no cursor can address
+    public static String encode(Instant timestamp, Long id) {
+        return timestamp != null && id != null ? timestamp + "_" + id : null;
+    }
+}
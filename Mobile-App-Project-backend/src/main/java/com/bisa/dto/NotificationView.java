@@ -0,0 +1,17 @@
+package com.bisa.dto;
+
+import java.time.Instant;
+
+// Notification columns for inbox pages, without loading the owning user
+public interface NotificationView {
+    Long getId();
+    String getType();
+    String getMessage();
+    Instant getTimestamp();
+    boolean isRead();
+
+    // Position of this notification, for paging past it or marking read up to it
+    default String getCursor() {
+        return NotificationCursor.encode(getTimestamp(), getId());
+    }
+}
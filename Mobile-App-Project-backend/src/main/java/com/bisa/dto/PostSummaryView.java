@@ -0,0 +1,14 @@
+package com.bisa.dto;
+
+import java.time.Instant;
+
+// Post columns plus comment count, read in one statement for profile post lists
+public interface PostSummaryView {
+    Long getId();
+    String getQuestion();
+    String getAnswer();
+    int getUpvotes();
+    int getShares();
+    Instant getCreatedAt();
+    long getCommentsCount();
+}
@@ -0,0 +1,21 @@
+package com.bisa.dto;
+
+// Public fields shown wherever a user is listed; never carries the email
+public class UserCard {
+    private final Long id;
+    private final String name;
+    private final String avatar;
+    private final String credentials;
+
+    public UserCard(Long id, String name, String avatar, String credentials) {
+        this.id = id;
+        this.name = name;
+        this.avatar = avatar;
+        this.credentials = credentials;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getAvatar() { return avatar; }
+    public String getCredentials() { return credentials; }
+}
@@ -17,6 +17,8 @@ public class UserProfileResponse {
     private int followersCount;
     private int followingCount;
     private int postsCount;
+    private int commentsCount;
+    private int upvotesReceived;
     private boolean isFollowing;
     private boolean isCurrentUser;
     private List<UserPostSummary> posts;
@@ -43,6 +45,16 @@ public class UserProfileResponse {
         this.isCurrentUser = isCurrentUser;
     }
 
+    // Shallow copy of a cached profile, so viewer flags can be set per request
+    public UserProfileResponse(UserProfileResponse other) {
+        this(other.id, other.name, other.avatar, other.credentials, other.bio, other.location,
+             other.website, other.joinDate, other.followersCount, other.followingCount,
+             other.postsCount, other.isFollowing, other.isCurrentUser);
+        this.commentsCount = other.commentsCount;
+        this.upvotesReceived = other.upvotesReceived;
+        this.posts = other.posts;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -132,6 +144,22 @@ public class UserProfileResponse {
         this.postsCount = postsCount;
     }
 
+    public int getCommentsCount() {
+        return commentsCount;
+    }
+
+    public void setCommentsCount(int commentsCount) {
+        this.commentsCount = commentsCount;
+    }
+
+    public int getUpvotesReceived() {
+        return upvotesReceived;
+    }
+
+    public void setUpvotesReceived(int upvotesReceived) {
+        this.upvotesReceived = upvotesReceived;
+    }
+
     public boolean isFollowing() {
         return isFollowing;
     }
@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_comment_post", columnList = "post_id"),
+        @Index(name = "idx_comment_user", columnList = "user_id")
+})
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,6 +7,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "fact_check")
 public class FactCheck {
+    // Large text columns are stored deflated and only loaded when accessed (needs bytecode enhancement)
+    private static final int MAX_COMPRESSED_LENGTH = 1_000_000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -16,23 +19,33 @@ public class FactCheck {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Post post;
 
-    @Column(columnDefinition = "TEXT")
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_analyzed_deflated", length = MAX_COMPRESSED_LENGTH)
     private String contentAnalyzed;
 
     private Double accuracyScore; // 0.0 to 1.0
     private String validityStatus; // "TRUE", "FALSE", "MISLEADING", "UNVERIFIABLE", "PARTIALLY_TRUE"
     private String confidenceLevel; // "HIGH", "MEDIUM", "LOW"
     
-    @Column(columnDefinition = "TEXT")
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "ai_analysis_deflated", length = MAX_COMPRESSED_LENGTH)
     private String aiAnalysis;
     
-    @Column(columnDefinition = "TEXT")
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "sources_cited_deflated", length = MAX_COMPRESSED_LENGTH)
     private String sourcesCited;
     
-    @Column(columnDefinition = "TEXT")
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "corrections_deflated", length = MAX_COMPRESSED_LENGTH)
     private String corrections;
     
-    @Column(columnDefinition = "TEXT")
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "reasoning_deflated", length = MAX_COMPRESSED_LENGTH)
     private String reasoning;
     
     private Instant checkedAt;
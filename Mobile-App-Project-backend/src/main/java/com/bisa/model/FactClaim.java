@@ -0,0 +1,52 @@
+package com.bisa.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// A single verified factual claim, shared by every post that repeats it
+@Entity
+@Table(name = "fact_claim")
+public class FactClaim {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 64)
+    private String claimHash; // SHA-256 of the normalized claim text
+
+    @Column(columnDefinition = "TEXT")
+    private String claimText;
+
+    private String verificationStatus;
+    private Double confidence;
+
+    @Column(columnDefinition = "TEXT")
+    private String explanation;
+
+    private Instant verifiedAt;
+
+    public FactClaim() {
+        this.verifiedAt = Instant.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getClaimHash() { return claimHash; }
+    public void setClaimHash(String claimHash) { this.claimHash = claimHash; }
+
+    public String getClaimText() { return claimText; }
+    public void setClaimText(String claimText) { this.claimText = claimText; }
+
+    public String getVerificationStatus() { return verificationStatus; }
+    public void setVerificationStatus(String verificationStatus) { this.verificationStatus = verificationStatus; }
+
+    public Double getConfidence() { return confidence; }
+    public void setConfidence(Double confidence) { this.confidence = confidence; }
+
+    public String getExplanation() { return explanation; }
+    public void setExplanation(String explanation) { this.explanation = explanation; }
+
+    public Instant getVerifiedAt() { return verifiedAt; }
+    public void setVerifiedAt(Instant verifiedAt) { this.verifiedAt = verifiedAt; }
+}
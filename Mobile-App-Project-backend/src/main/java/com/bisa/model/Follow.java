@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "follows")
+@Table(name = "follows", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_follows_follower_followed", columnNames = {"follower_id", "followed_user_id"})
+}, indexes = {
+        @Index(name = "idx_follows_follower", columnList = "follower_id"),
+        @Index(name = "idx_follows_followed_user", columnList = "followed_user_id")
+})
 public class Follow {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,7 +3,9 @@ package com.bisa.model;
 import jakarta.persistence.*;
 import java.time.Instant;
 
+// Inbox pages are read newest-first per user, so the index matches that keyset order
 @Entity
+@Table(indexes = @Index(name = "idx_notification_user_time", columnList = "user_id, timestamp, id"))
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
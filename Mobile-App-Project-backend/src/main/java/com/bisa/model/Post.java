@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = @Index(name = "idx_post_user_created", columnList = "user_id, created_at"))
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
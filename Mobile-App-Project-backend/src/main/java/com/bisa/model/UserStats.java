@@ -0,0 +1,54 @@
+package com.bisa.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.Instant;
+
+// Per-user counters kept up to date by follow, post and comment writes, so profile views read one row
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+    @Id
+    private Long userId;
+
+    private int followersCount;
+    private int followingCount;
+    private int postsCount;
+    private int commentsCount;
+    private int upvotesReceived;
+    // Added after the table existed; the default lets schema update fill existing rows
+    @ColumnDefault("0")
+    private int unreadNotifications;
+    private Instant reconciledAt;
+
+    public UserStats() {}
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+        this.reconciledAt = Instant.now();
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public int getFollowersCount() { return followersCount; }
+    public void setFollowersCount(int followersCount) { this.followersCount = followersCount; }
+
+    public int getFollowingCount() { return followingCount; }
+    public void setFollowingCount(int followingCount) { this.followingCount = followingCount; }
+
+    public int getPostsCount() { return postsCount; }
+    public void setPostsCount(int postsCount) { this.postsCount = postsCount; }
+
+    public int getCommentsCount() { return commentsCount; }
+    public void setCommentsCount(int commentsCount) { this.commentsCount = commentsCount; }
+
+    public int getUpvotesReceived() { return upvotesReceived; }
+    public void setUpvotesReceived(int upvotesReceived) { this.upvotesReceived = upvotesReceived; }
+
+    public int getUnreadNotifications() { return unreadNotifications; }
+    public void setUnreadNotifications(int unreadNotifications) { this.unreadNotifications = unreadNotifications; }
+
+    public Instant getReconciledAt() { return reconciledAt; }
+    public void setReconciledAt(Instant reconciledAt) { this.reconciledAt = reconciledAt; }
+}
@@ -4,6 +4,7 @@ import com.bisa.model.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import com.bisa.model.Post;
  
@@ -14,4 +15,12 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post = :post")
     int countByPost(@Param("post") Post post);
+    
+    // Comment counts for a batch of posts, as [postId, count] rows
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
+    
+    // Comment counts for a batch of authors, as [userId, count] rows
+    @Query("SELECT c.user.id, COUNT(c) FROM Comment c WHERE c.user.id IN :userIds GROUP BY c.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
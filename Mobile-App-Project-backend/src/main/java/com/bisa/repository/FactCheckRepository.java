@@ -1,9 +1,14 @@
 package com.bisa.repository;
 
+import com.bisa.dto.FactCheckStatus;
 import com.bisa.model.FactCheck;
 import com.bisa.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +17,15 @@ public interface FactCheckRepository extends JpaRepository<FactCheck, Long> {
     List<FactCheck> findByPostOrderByCheckedAtDesc(Post post);
     Optional<FactCheck> findFirstByPostOrderByCheckedAtDesc(Post post);
     boolean existsByPost(Post post);
+
+    // Reads only the scalar columns, never the compressed analysis text
+    @Query("SELECT new com.bisa.dto.FactCheckStatus(f.id, f.validityStatus, f.accuracyScore, f.confidenceLevel, " +
+           "f.checkedBy, f.checkedAt) FROM FactCheck f WHERE f.post.id = :postId ORDER BY f.checkedAt DESC")
+    List<FactCheckStatus> findStatusesByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    // Latest check per post that is older than the cutoff, in keyset (id) order for batched scans
+    @Query("SELECT f FROM FactCheck f JOIN FETCH f.post WHERE f.id > :afterId AND f.checkedAt < :staleBefore " +
+           "AND f.checkedAt = (SELECT MAX(f2.checkedAt) FROM FactCheck f2 WHERE f2.post = f.post) ORDER BY f.id")
+    List<FactCheck> findStaleLatestChecks(@Param("afterId") Long afterId, @Param("staleBefore") Instant staleBefore,
+                                          Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.bisa.repository;
+
+import com.bisa.model.FactClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FactClaimRepository extends JpaRepository<FactClaim, Long> {
+    List<FactClaim> findByClaimHashInAndVerifiedAtAfter(Collection<String> claimHashes, Instant verifiedAfter);
+    Optional<FactClaim> findByClaimHash(String claimHash);
+}
@@ -1,21 +1,30 @@
 package com.bisa.repository;
 
+import com.bisa.dto.FollowUserView;
 import com.bisa.model.Follow;
 import com.bisa.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
  
-public interface FollowRepository extends JpaRepository<Follow, Long> {
+public interface FollowRepository extends JpaRepository<Follow, Long>, FollowRepositoryCustom {
     // Find follow relationship between two users
     Optional<Follow> findByFollowerAndFollowedUser(User follower, User followedUser);
     
     // Check if a user is following another user
     Optional<Follow> findByFollowerIdAndFollowedUserId(Long followerId, Long followedUserId);
     
+    // Removes a follow in one statement; returns the number of rows deleted
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.followedUser.id = :followedUserId")
+    int deleteByFollowerIdAndFollowedUserId(@Param("followerId") Long followerId, @Param("followedUserId") Long followedUserId);
+    
     // Count followers for a user
     @Query("SELECT COUNT(f) FROM Follow f WHERE f.followedUser = :user")
     int countByFollowedUser(@Param("user") User user);
@@ -24,6 +33,36 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     @Query("SELECT COUNT(f) FROM Follow f WHERE f.follower = :user")
     int countByFollower(@Param("user") User user);
     
+    // Follower counts for a batch of users, as [userId, count] rows
+    @Query("SELECT f.followedUser.id, COUNT(f) FROM Follow f WHERE f.followedUser.id IN :userIds GROUP BY f.followedUser.id")
+    List<Object[]> countFollowersByUserIds(@Param("userIds") Collection<Long> userIds);
+    
+    // Following counts for a batch of users, as [userId, count] rows
+    @Query("SELECT f.follower.id, COUNT(f) FROM Follow f WHERE f.follower.id IN :userIds GROUP BY f.follower.id")
+    List<Object[]> countFollowingByUserIds(@Param("userIds") Collection<Long> userIds);
+    
+    // Keyset page of [id, followerId, followedUserId] rows for loading the follow graph
+    @Query("SELECT f.id, f.follower.id, f.followedUser.id FROM Follow f WHERE f.id > :afterId ORDER BY f.id")
+    List<Object[]> findEdgesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Which of the given users the follower already follows
+    @Query("SELECT f.followedUser.id FROM Follow f WHERE f.follower.id = :followerId AND f.followedUser.id IN :userIds")
+    List<Long> findFollowedUserIdsAmong(@Param("followerId") Long followerId, @Param("userIds") Collection<Long> userIds);
+    
+    // Followers of a user joined in one statement, newest first
+    @Query(value = "SELECT u.id AS id, u.name AS name, u.avatar AS avatar, u.credentials AS credentials, u.bio AS bio, " +
+                   "u.location AS location, u.website AS website, u.createdAt AS createdAt " +
+                   "FROM Follow f JOIN f.follower u WHERE f.followedUser.id = :userId ORDER BY f.followedAt DESC, f.id DESC",
+           countQuery = "SELECT COUNT(f) FROM Follow f WHERE f.followedUser.id = :userId")
+    Page<FollowUserView> findFollowerViews(@Param("userId") Long userId, Pageable pageable);
+    
+    // Users a user follows joined in one statement, newest first
+    @Query(value = "SELECT u.id AS id, u.name AS name, u.avatar AS avatar, u.credentials AS credentials, u.bio AS bio, " +
+                   "u.location AS location, u.website AS website, u.createdAt AS createdAt " +
+                   "FROM Follow f JOIN f.followedUser u WHERE f.follower.id = :userId ORDER BY f.followedAt DESC, f.id DESC",
+           countQuery = "SELECT COUNT(f) FROM Follow f WHERE f.follower.id = :userId")
+    Page<FollowUserView> findFollowingViews(@Param("userId") Long userId, Pageable pageable);
+    
     // Get followers of a user (paginated)
     Page<Follow> findByFollowedUserOrderByFollowedAtDesc(User user, Pageable pageable);
     
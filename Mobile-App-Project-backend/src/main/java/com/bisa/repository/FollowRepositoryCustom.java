@@ -0,0 +1,8 @@
+package com.bisa.repository;
+
+import java.time.Instant;
+
+public interface FollowRepositoryCustom {
+    // Inserts the follow unless it already exists or either user is unknown; returns whether a row was created
+    boolean insertIfAbsent(Long followerId, Long followedUserId, String type, Instant followedAt);
+}
@@ -0,0 +1,46 @@
+package com.bisa.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// Single-statement idempotent follow insert, relying on the unique (follower_id, followed_user_id) constraint.
+// Selecting the IDs from app_user makes an unknown user insert nothing instead of failing the foreign key.
+public class FollowRepositoryCustomImpl implements FollowRepositoryCustom {
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO follows (follower_id, followed_user_id, type, followed_at) " +
+            "SELECT f.id, u.id, ?, ? FROM app_user f, app_user u WHERE f.id = ? AND u.id = ? " +
+            "ON CONFLICT (follower_id, followed_user_id) DO NOTHING";
+    private static final String H2_MERGE =
+            "MERGE INTO follows f USING (SELECT a.id AS follower_id, b.id AS followed_user_id, " +
+            "CAST(? AS VARCHAR) AS type, CAST(? AS TIMESTAMP(6) WITH TIME ZONE) AS followed_at " +
+            "FROM app_user a, app_user b WHERE a.id = ? AND b.id = ?) AS v " +
+            "ON f.follower_id = v.follower_id AND f.followed_user_id = v.followed_user_id " +
+            "WHEN NOT MATCHED THEN INSERT (follower_id, followed_user_id, type, followed_at) " +
+            "VALUES (v.follower_id, v.followed_user_id, v.type, v.followed_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String insertSql;
+
+    public FollowRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertIfAbsent(Long followerId, Long followedUserId, String type, Instant followedAt) {
+        return jdbcTemplate.update(insertSql(), type, Timestamp.from(followedAt), followerId, followedUserId) > 0;
+    }
+
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            sql = "H2".equalsIgnoreCase(product) ? H2_MERGE : POSTGRES_INSERT;
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
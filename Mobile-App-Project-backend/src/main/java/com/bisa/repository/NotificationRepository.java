@@ -1,7 +1,49 @@
 package com.bisa.repository;
 
+import com.bisa.dto.NotificationView;
 import com.bisa.model.Notification;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
  
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-} 
\ No newline at end of file
+    // Newest notifications for a user, walking idx_notification_user_time backwards
+    @Query("SELECT n.id AS id, n.type AS type, n.message AS message, n.timestamp AS timestamp, n.isRead AS read " +
+           "FROM Notification n WHERE n.user.id = :userId ORDER BY n.timestamp DESC, n.id DESC")
+    List<NotificationView> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    // The page after (timestamp, id) in the same newest-first order
+    @Query("SELECT n.id AS id, n.type AS type, n.message AS message, n.timestamp AS timestamp, n.isRead AS read " +
+           "FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.timestamp < :timestamp OR (n.timestamp = :timestamp AND n.id < :id)) " +
+           "ORDER BY n.timestamp DESC, n.id DESC")
+    List<NotificationView> findInboxBefore(@Param("userId") Long userId, @Param("timestamp") Instant timestamp,
+                                           @Param("id") Long id, Pageable pageable);
+
+    // Marks every unread notification up to and including (timestamp, id) in one statement
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false " +
+           "AND (n.timestamp < :timestamp OR (n.timestamp = :timestamp AND n.id <= :id))")
+    int markReadUpTo(@Param("userId") Long userId, @Param("timestamp") Instant timestamp, @Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    // Locks the row so a concurrent mark-read cannot change the read flag between load and save
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.id = :id")
+    Optional<Notification> findByIdForUpdate(@Param("id") Long id);
+
+    // Unread counts for a batch of users, as [userId, count] rows
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n WHERE n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+}
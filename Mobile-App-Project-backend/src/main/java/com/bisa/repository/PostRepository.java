@@ -1,5 +1,6 @@
 package com.bisa.repository;
 
+import com.bisa.dto.PostSummaryView;
 import com.bisa.model.Post;
 import com.bisa.model.User;
 import org.springframework.data.domain.Page;
@@ -7,6 +8,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
  
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -14,7 +16,18 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT COUNT(p) FROM Post p WHERE p.user = :user")
     int countByUser(@Param("user") User user);
     
+    // Post counts and upvotes received for a batch of users, as [userId, count, upvotes] rows
+    @Query("SELECT p.user.id, COUNT(p), COALESCE(SUM(p.upvotes), 0) FROM Post p WHERE p.user.id IN :userIds GROUP BY p.user.id")
+    List<Object[]> countPostsAndUpvotesByUserIds(@Param("userIds") Collection<Long> userIds);
+    
     List<Post> findByUserOrderByCreatedAtDesc(User user);
     
+    // A user's most recent posts with comment counts; page size becomes the LIMIT
+    @Query("SELECT p.id AS id, p.question AS question, p.answer AS answer, p.upvotes AS upvotes, " +
+           "p.shares AS shares, p.createdAt AS createdAt, " +
+           "(SELECT COUNT(c) FROM Comment c WHERE c.post = p) AS commentsCount " +
+           "FROM Post p WHERE p.user.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryView> findRecentSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+    
     Page<Post> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
 } 
\ No newline at end of file
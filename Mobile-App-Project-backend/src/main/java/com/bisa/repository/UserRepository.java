@@ -1,9 +1,36 @@
 package com.bisa.repository;
 
+import com.bisa.dto.UserCard;
 import com.bisa.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
  
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
+
+    // Keyset page of user IDs for batch jobs
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page of the public user directory
+    @Query("SELECT new com.bisa.dto.UserCard(u.id, u.name, u.avatar, u.credentials) FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserCard> findCardsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Cards for a batch of user IDs, for the shared user-card cache
+    @Query("SELECT new com.bisa.dto.UserCard(u.id, u.name, u.avatar, u.credentials) FROM User u WHERE u.id IN :ids")
+    List<UserCard> findCardsByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset page of [id, name] rows for building the name search index
+    @Query("SELECT u.id, u.name FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Substring scan used only until the in-memory search index has loaded
+    @Query("SELECT new com.bisa.dto.UserCard(u.id, u.name, u.avatar, u.credentials) FROM User u " +
+           "WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY u.id")
+    List<UserCard> findCardsByNameContaining(@Param("query") String query, Pageable pageable);
 } 
\ No newline at end of file
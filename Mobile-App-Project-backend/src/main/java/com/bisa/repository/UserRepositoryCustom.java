@@ -0,0 +1,10 @@
+package com.bisa.repository;
+
+import com.bisa.model.User;
+
+public interface UserRepositoryCustom {
+    // Inserts the user unless the email is taken; returns the stored row and whether it was created
+    Upserted upsertByEmail(User user);
+
+    record Upserted(User user, boolean created) {}
+}
@@ -0,0 +1,79 @@
+package com.bisa.repository;
+
+import com.bisa.model.User;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Atomic sign-in upsert on the unique app_user.email constraint
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final String COLUMNS = "id, email, name, avatar, credentials, bio, location, website, created_at";
+    // RETURNING yields a row only for a fresh insert; an existing email is read back separately, so a
+    // repeat sign-in never writes a new tuple
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO app_user (email, name, avatar, created_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (email) DO NOTHING RETURNING " + COLUMNS;
+    private static final String H2_MERGE =
+            "MERGE INTO app_user u USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR), " +
+            "CAST(? AS TIMESTAMP(6) WITH TIME ZONE))) AS v(email, name, avatar, created_at) ON u.email = v.email " +
+            "WHEN NOT MATCHED THEN INSERT (email, name, avatar, created_at) VALUES (v.email, v.name, v.avatar, v.created_at)";
+    private static final String SELECT_BY_EMAIL = "SELECT " + COLUMNS + " FROM app_user WHERE email = ?";
+
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setEmail(rs.getString("email"));
+        user.setName(rs.getString("name"));
+        user.setAvatar(rs.getString("avatar"));
+        user.setCredentials(rs.getString("credentials"));
+        user.setBio(rs.getString("bio"));
+        user.setLocation(rs.getString("location"));
+        user.setWebsite(rs.getString("website"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        user.setCreatedAt(createdAt != null ? createdAt.toInstant() : null);
+        return user;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public UserRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Upserted upsertByEmail(User user) {
+        Timestamp createdAt = Timestamp.from(user.getCreatedAt());
+        if (isPostgres()) {
+            List<User> inserted = jdbcTemplate.query(POSTGRES_INSERT, USER_ROW_MAPPER,
+                    user.getEmail(), user.getName(), user.getAvatar(), createdAt);
+            if (!inserted.isEmpty()) {
+                return new Upserted(inserted.get(0), true);
+            }
+            return new Upserted(jdbcTemplate.queryForObject(SELECT_BY_EMAIL, USER_ROW_MAPPER, user.getEmail()), false);
+        }
+
+        boolean created;
+        try {
+            created = jdbcTemplate.update(H2_MERGE, user.getEmail(), user.getName(), user.getAvatar(), createdAt) > 0;
+        } catch (DuplicateKeyException e) {
+            created = false; // a concurrent sign-in inserted the same email first
+        }
+        return new Upserted(jdbcTemplate.queryForObject(SELECT_BY_EMAIL, USER_ROW_MAPPER, user.getEmail()), created);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
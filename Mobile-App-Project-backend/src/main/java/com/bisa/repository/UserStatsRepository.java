@@ -0,0 +1,44 @@
+package com.bisa.repository;
+
+import com.bisa.model.UserStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long>, UserStatsRepositoryCustom {
+    // Held by the reconciler while it recounts, so increments wait instead of being overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStats s WHERE s.userId IN :userIds")
+    List<UserStats> findAllByIdForUpdate(@Param("userIds") Collection<Long> userIds);
+
+    // Atomic in-place increments; they return 0 for a user without a row, which UserStatsService then creates
+    @Modifying
+    @Query("UPDATE UserStats s SET s.followersCount = s.followersCount + :delta WHERE s.userId = :userId")
+    int addFollowers(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.followingCount = s.followingCount + :delta WHERE s.userId = :userId")
+    int addFollowing(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.postsCount = s.postsCount + :delta, " +
+           "s.upvotesReceived = s.upvotesReceived + :upvotes WHERE s.userId = :userId")
+    int addPosts(@Param("userId") Long userId, @Param("delta") int delta, @Param("upvotes") int upvotes);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.commentsCount = s.commentsCount + :delta WHERE s.userId = :userId")
+    int addComments(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.upvotesReceived = s.upvotesReceived + :delta WHERE s.userId = :userId")
+    int addUpvotesReceived(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.unreadNotifications = s.unreadNotifications + :delta WHERE s.userId = :userId")
+    int addUnreadNotifications(@Param("userId") Long userId, @Param("delta") int delta);
+}
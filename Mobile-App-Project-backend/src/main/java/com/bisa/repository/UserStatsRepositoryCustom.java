@@ -0,0 +1,8 @@
+package com.bisa.repository;
+
+import com.bisa.model.UserStats;
+
+public interface UserStatsRepositoryCustom {
+    // Inserts the row unless the user already has one; returns whether a row was created
+    boolean insertIfAbsent(UserStats stats);
+}
@@ -0,0 +1,55 @@
+package com.bisa.repository;
+
+import com.bisa.model.UserStats;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+
+// Idempotent user_stats row creation on the user_id primary key
+public class UserStatsRepositoryCustomImpl implements UserStatsRepositoryCustom {
+    private static final String COLUMNS = "user_id, followers_count, following_count, posts_count, " +
+            "comments_count, upvotes_received, unread_notifications, reconciled_at";
+    // A concurrent insert of the same user blocks here until it commits, then this one does nothing
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO user_stats (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id) DO NOTHING";
+    private static final String H2_MERGE =
+            "MERGE INTO user_stats s USING (VALUES (CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS INTEGER), " +
+            "CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER), " +
+            "CAST(? AS TIMESTAMP(6) WITH TIME ZONE))) AS v(" + COLUMNS + ") ON s.user_id = v.user_id " +
+            "WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (v.user_id, v.followers_count, " +
+            "v.following_count, v.posts_count, v.comments_count, v.upvotes_received, v.unread_notifications, " +
+            "v.reconciled_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String insertSql;
+
+    public UserStatsRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertIfAbsent(UserStats stats) {
+        Timestamp reconciledAt = stats.getReconciledAt() != null ? Timestamp.from(stats.getReconciledAt()) : null;
+        try {
+            return jdbcTemplate.update(insertSql(), stats.getUserId(), stats.getFollowersCount(),
+                    stats.getFollowingCount(), stats.getPostsCount(), stats.getCommentsCount(),
+                    stats.getUpvotesReceived(), stats.getUnreadNotifications(), reconciledAt) > 0;
+        } catch (DuplicateKeyException e) {
+            return false; // H2 only: a concurrent insert of the same user won
+        }
+    }
+
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            sql = "H2".equalsIgnoreCase(product) ? H2_MERGE : POSTGRES_INSERT;
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
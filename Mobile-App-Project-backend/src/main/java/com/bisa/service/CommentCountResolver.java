@@ -0,0 +1,67 @@
+package com.bisa.service;
+
+import com.bisa.repository.CommentRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resolves comment counts for a set of posts with one GROUP BY query, memoized for the current request
+@Component
+public class CommentCountResolver {
+    private static final String MEMO_ATTRIBUTE = CommentCountResolver.class.getName() + ".memo";
+
+    private final CommentRepository commentRepository;
+
+    public CommentCountResolver(CommentRepository commentRepository) {
+        this.commentRepository = commentRepository;
+    }
+
+    public int resolve(Long postId) {
+        return resolve(List.of(postId)).get(postId);
+    }
+
+    public Map<Long, Integer> resolve(Collection<Long> postIds) {
+        Map<Long, Integer> memo = requestMemo();
+        Map<Long, Integer> counts = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            Integer known = memo.get(postId);
+            if (known != null) {
+                counts.put(postId, known);
+            } else if (!counts.containsKey(postId)) {
+                counts.put(postId, 0); // posts without comments do not appear in the GROUP BY result
+                missing.add(postId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Object[] row : commentRepository.countByPostIds(missing)) {
+                counts.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+            }
+            for (Long postId : missing) {
+                memo.put(postId, counts.get(postId));
+            }
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashMap<>(); // outside a web request, e.g. scheduled jobs
+        }
+        Map<Long, Integer> memo = (Map<Long, Integer>) attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
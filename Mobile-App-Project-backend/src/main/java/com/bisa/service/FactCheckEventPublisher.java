@@ -0,0 +1,53 @@
+package com.bisa.service;
+
+import com.bisa.dto.FactCheckEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class FactCheckEventPublisher {
+    private static final Sinks.EmitFailureHandler RETRY_ON_CONTENTION =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    // One multicast sink per post; every watcher of that post subscribes to the same sink
+    private final Map<Long, Sinks.Many<FactCheckEvent>> sinks = new ConcurrentHashMap<>();
+
+    public Flux<FactCheckEvent> watch(Long postId, FactCheckEvent snapshot) {
+        Flux<FactCheckEvent> live = Flux.defer(() -> sinkFor(postId).asFlux());
+        return Flux.concat(Flux.just(snapshot), live)
+                .takeUntil(FactCheckEvent::isTerminal)
+                .doFinally(signal -> releaseIfUnwatched(postId));
+    }
+
+    public void publish(FactCheckEvent event) {
+        Long postId = event.getPostId();
+        if (event.isTerminal()) {
+            Sinks.Many<FactCheckEvent> sink = sinks.get(postId);
+            if (sink != null) {
+                sink.emitNext(event, RETRY_ON_CONTENTION);
+                releaseIfUnwatched(postId);
+            }
+            return;
+        }
+        // Keep the sink while a check is running so late watchers replay the current state
+        sinkFor(postId).emitNext(event, RETRY_ON_CONTENTION);
+    }
+
+    public int getWatcherCount(Long postId) {
+        Sinks.Many<FactCheckEvent> sink = sinks.get(postId);
+        return sink != null ? sink.currentSubscriberCount() : 0;
+    }
+
+    private Sinks.Many<FactCheckEvent> sinkFor(Long postId) {
+        return sinks.computeIfAbsent(postId, id -> Sinks.many().replay().latest());
+    }
+
+    private void releaseIfUnwatched(Long postId) {
+        sinks.computeIfPresent(postId, (id, sink) -> sink.currentSubscriberCount() == 0 ? null : sink);
+    }
+}
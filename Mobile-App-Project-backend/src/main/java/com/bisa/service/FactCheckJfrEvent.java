@@ -0,0 +1,23 @@
+package com.bisa.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One JFR event per fact check, so slow checks can be lined up with GC pauses and thread dumps
+@Name("com.bisa.FactCheck")
+@Label("Fact Check")
+@Category({"Bisa", "Fact Check"})
+@Description("A single performFactCheck call")
+public class FactCheckJfrEvent extends Event {
+    @Label("Post ID")
+    long postId;
+
+    @Label("Checked By")
+    String checkedBy;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,118 @@
+package com.bisa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class FactCheckMetrics {
+    public static final String OUTCOME_REUSED = "reused";         // stored result still within RESULT_TTL
+    public static final String OUTCOME_JOINED = "joined";         // waited for a check already in flight
+    public static final String OUTCOME_AI = "ai";
+    public static final String OUTCOME_KNOWN_CLAIMS = "known_claims";
+    public static final String OUTCOME_MOCK = "mock";             // mock mode, AI disabled
+    public static final String OUTCOME_FALLBACK = "fallback";     // AI failed, mock response used
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final Counter reuseCounter;
+    private final Counter fallbackCounter;
+
+    public FactCheckMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.reuseCounter = Counter.builder("factcheck.reuse")
+                .description("Fact checks answered from a stored result")
+                .register(registry);
+        this.fallbackCounter = Counter.builder("factcheck.fallback")
+                .description("Fact checks that fell back to the mock response after an AI failure")
+                .register(registry);
+    }
+
+    public void registerInFlightGauge(Map<?, ?> inFlightChecks) {
+        Gauge.builder("factcheck.in_flight", inFlightChecks, Map::size)
+                .description("Fact checks currently running")
+                .register(registry);
+    }
+
+    public Observation start(Long postId, String checkedBy) {
+        return new Observation(postId, checkedBy);
+    }
+
+    public Timer.Sample startAiCall() {
+        return Timer.start(registry);
+    }
+
+    public void stopAiCall(Timer.Sample sample, Throwable error) {
+        sample.stop(Timer.builder("factcheck.ai.latency")
+                .description("Latency of calls to the AI fact-checking service")
+                .tag("outcome", error == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry));
+        if (error != null) {
+            Counter.builder("factcheck.ai.errors")
+                    .description("AI service failures by type")
+                    .tag("type", errorType(error))
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private String errorType(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException responseException) {
+                return "http_" + responseException.getStatusCode().value();
+            }
+            if (t instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (t.getCause() == null) {
+                return t.getClass().getSimpleName();
+            }
+        }
+        return "unknown";
+    }
+
+    // End-to-end measurement of one performFactCheck call, also emitted as a JFR event
+    public class Observation {
+        private final Timer.Sample sample;
+        private final FactCheckJfrEvent jfrEvent;
+        private String outcome = OUTCOME_ERROR;
+
+        private Observation(Long postId, String checkedBy) {
+            this.sample = Timer.start(registry);
+            this.jfrEvent = new FactCheckJfrEvent();
+            this.jfrEvent.postId = postId != null ? postId : 0;
+            this.jfrEvent.checkedBy = checkedBy;
+            this.jfrEvent.begin();
+        }
+
+        public void outcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        public void stop() {
+            if (OUTCOME_REUSED.equals(outcome)) {
+                reuseCounter.increment();
+            } else if (OUTCOME_FALLBACK.equals(outcome)) {
+                fallbackCounter.increment();
+            }
+            sample.stop(Timer.builder("factcheck.duration")
+                    .description("End-to-end fact check latency")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+
+            jfrEvent.end();
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.outcome = outcome;
+                jfrEvent.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.bisa.service;
+
+import com.bisa.model.FactCheck;
+import com.bisa.model.Post;
+import com.bisa.repository.FactCheckRepository;
+import com.bisa.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class FactCheckRecheckScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(FactCheckRecheckScheduler.class);
+    private static final String CHECKED_BY = "scheduler";
+    private static final int SHARE_WEIGHT = 3; // a share spreads a post further than an upvote
+
+    private final FactCheckRepository factCheckRepository;
+    private final PostRepository postRepository;
+    private final FactCheckService factCheckService;
+
+    @Value("${factcheck.recheck.enabled:true}")
+    private boolean enabled;
+
+    @Value("${factcheck.recheck.calls-per-minute:10}")
+    private int callsPerMinute;
+
+    @Value("${factcheck.recheck.batch-size:200}")
+    private int batchSize;
+
+    @Value("${factcheck.recheck.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Interactive checks allowed to be running before background work backs off
+    @Value("${factcheck.recheck.max-interactive-in-flight:1}")
+    private int maxInteractiveInFlight;
+
+    // Most engaged stale posts first
+    private final PriorityQueue<StaleCheck> queue =
+            new PriorityQueue<>(Comparator.comparingLong(StaleCheck::engagement).reversed());
+    // AI calls block for seconds, so they run on their own thread instead of the shared @Scheduled one;
+    // at most one drain is queued or running at a time
+    private final ExecutorService recheckExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "factcheck-recheck");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Only touched by the recheck thread
+    private Instant budgetWindowStart = Instant.now();
+    private int callsInWindow;
+
+    public FactCheckRecheckScheduler(FactCheckRepository factCheckRepository, PostRepository postRepository,
+                                     FactCheckService factCheckService) {
+        this.factCheckRepository = factCheckRepository;
+        this.postRepository = postRepository;
+        this.factCheckService = factCheckService;
+    }
+
+    @Scheduled(initialDelayString = "${factcheck.recheck.initial-delay-ms:60000}",
+               fixedDelayString = "${factcheck.recheck.scan-interval-ms:300000}")
+    public void scanForStaleChecks() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant staleBefore = Instant.now().minus(FactCheckService.RESULT_TTL);
+        // Min-heap holding the top queueCapacity posts seen so far
+        PriorityQueue<StaleCheck> top = new PriorityQueue<>(Comparator.comparingLong(StaleCheck::engagement));
+        long afterId = 0;
+        int scanned = 0;
+        List<FactCheck> batch;
+        do {
+            batch = factCheckRepository.findStaleLatestChecks(afterId, staleBefore, PageRequest.of(0, batchSize));
+            for (FactCheck check : batch) {
+                Post post = check.getPost();
+                top.offer(new StaleCheck(post.getId(), engagementScore(post)));
+                if (top.size() > queueCapacity) {
+                    top.poll();
+                }
+                afterId = check.getId();
+            }
+            scanned += batch.size();
+        } while (batch.size() == batchSize);
+
+        synchronized (queue) {
+            queue.clear();
+            queue.addAll(top);
+        }
+        logger.info("Stale fact check scan found {} posts, {} queued for re-check", scanned, top.size());
+    }
+
+    @Scheduled(fixedDelayString = "${factcheck.recheck.dispatch-interval-ms:5000}")
+    public void dispatchRechecks() {
+        if (!enabled || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            recheckExecutor.execute(() -> {
+                try {
+                    drainQueue();
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            draining.set(false);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recheckExecutor.shutdownNow();
+    }
+
+    private void drainQueue() {
+        while (hasBudget() && isIdle()) {
+            StaleCheck next;
+            synchronized (queue) {
+                next = queue.poll();
+            }
+            if (next == null) {
+                return;
+            }
+
+            Optional<Post> postOpt = postRepository.findById(next.postId());
+            if (postOpt.isEmpty()) {
+                continue;
+            }
+
+            Instant startedAt = Instant.now();
+            try {
+                FactCheck result = factCheckService.performFactCheck(postOpt.get(), CHECKED_BY);
+                // Only count a call when the post was still stale and a new check was produced
+                if (!result.getCheckedAt().isBefore(startedAt)) {
+                    callsInWindow++;
+                }
+            } catch (RuntimeException e) {
+                callsInWindow++;
+                logger.warn("Background re-check failed for post ID: {}", next.postId(), e);
+            }
+        }
+    }
+
+    private boolean hasBudget() {
+        Instant now = Instant.now();
+        if (Duration.between(budgetWindowStart, now).compareTo(Duration.ofMinutes(1)) >= 0) {
+            budgetWindowStart = now;
+            callsInWindow = 0;
+        }
+        return callsInWindow < callsPerMinute;
+    }
+
+    private boolean isIdle() {
+        return factCheckService.getInFlightCount() < maxInteractiveInFlight;
+    }
+
+    private long engagementScore(Post post) {
+        return (long) post.getUpvotes() + (long) post.getShares() * SHARE_WEIGHT;
+    }
+
+    private record StaleCheck(Long postId, long engagement) {}
+}
@@ -1,29 +1,53 @@
 package com.bisa.service;
 
+import com.bisa.dto.FactCheckEvent;
 import com.bisa.dto.FactCheckRequest;
 import com.bisa.dto.FactCheckResponse;
+import com.bisa.dto.FactCheckStatus;
 import com.bisa.model.FactCheck;
 import com.bisa.model.Post;
 import com.bisa.repository.FactCheckRepository;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
 public class FactCheckService {
     private static final Logger logger = LoggerFactory.getLogger(FactCheckService.class);
+
+    // How long a stored result is reused before the post is checked again
+    public static final Duration RESULT_TTL = Duration.ofHours(24);
+
+    // Claim statuses that count as supporting the post's accuracy
+    private static final Set<String> SUPPORTED_CLAIM_STATUSES = Set.of("VERIFIED", "TRUE", "SUPPORTED", "ACCURATE");
     
     private final FactCheckRepository factCheckRepository;
+    private final FactCheckEventPublisher eventPublisher;
+    private final FactClaimCache factClaimCache;
+    private final FactCheckMetrics metrics;
     private final WebClient webClient;
+
+    // Checks currently running, keyed by post ID, so concurrent triggers share one AI call
+    private final Map<Long, CompletableFuture<FactCheck>> inFlightChecks = new ConcurrentHashMap<>();
     
     @Value("${factcheck.ai.service.url:https://api.openai.com/v1/chat/completions}")
     private String aiServiceUrl;
@@ -34,8 +58,13 @@ public class FactCheckService {
     @Value("${factcheck.enable-mock:true}")
     private boolean enableMock;
 
-    public FactCheckService(FactCheckRepository factCheckRepository) {
+    public FactCheckService(FactCheckRepository factCheckRepository, FactCheckEventPublisher eventPublisher,
+                            FactClaimCache factClaimCache, FactCheckMetrics metrics) {
         this.factCheckRepository = factCheckRepository;
+        this.eventPublisher = eventPublisher;
+        this.factClaimCache = factClaimCache;
+        this.metrics = metrics;
+        metrics.registerInFlightGauge(inFlightChecks);
         this.webClient = WebClient.builder()
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
                 .build();
@@ -43,24 +72,64 @@ public class FactCheckService {
 
     public FactCheck performFactCheck(Post post, String checkedBy) {
         logger.info("Starting fact check for post ID: {}", post.getId());
-        
+        FactCheckMetrics.Observation observation = metrics.start(post.getId(), checkedBy);
+        try {
+            return performFactCheck(post, checkedBy, observation);
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private FactCheck performFactCheck(Post post, String checkedBy, FactCheckMetrics.Observation observation) {
         // Check if we already have a recent fact check
         Optional<FactCheck> existingCheck = factCheckRepository.findFirstByPostOrderByCheckedAtDesc(post);
         if (existingCheck.isPresent()) {
             FactCheck existing = existingCheck.get();
             // If checked within last 24 hours, return existing result
-            if (existing.getCheckedAt().plus(Duration.ofHours(24)).isAfter(java.time.Instant.now())) {
+            if (existing.getCheckedAt().plus(RESULT_TTL).isAfter(java.time.Instant.now())) {
                 logger.info("Returning existing fact check for post ID: {}", post.getId());
+                observation.outcome(FactCheckMetrics.OUTCOME_REUSED);
                 return existing;
             }
         }
 
+        // Join a check that is already running for this post instead of starting another one
+        CompletableFuture<FactCheck> job = new CompletableFuture<>();
+        CompletableFuture<FactCheck> running = inFlightChecks.putIfAbsent(post.getId(), job);
+        if (running != null) {
+            logger.info("Joining in-flight fact check for post ID: {}", post.getId());
+            FactCheck joined = running.join();
+            observation.outcome(FactCheckMetrics.OUTCOME_JOINED);
+            return joined;
+        }
+
+        try {
+            FactCheck result = runFactCheck(post, checkedBy, observation);
+            job.complete(result);
+            eventPublisher.publish(FactCheckEvent.completed(post.getId(), result));
+            return result;
+        } catch (RuntimeException e) {
+            job.completeExceptionally(e);
+            eventPublisher.publish(FactCheckEvent.failed(post.getId(), "Fact check failed"));
+            throw e;
+        } finally {
+            inFlightChecks.remove(post.getId(), job);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlightChecks.size();
+    }
+
+    private FactCheck runFactCheck(Post post, String checkedBy, FactCheckMetrics.Observation observation) {
+        eventPublisher.publish(FactCheckEvent.running(post.getId(), "Preparing content for analysis"));
+
         // Prepare content for analysis
         String contentToAnalyze = prepareContentForAnalysis(post);
         
         try {
-            // Try to get AI analysis
-            FactCheckResponse aiResponse = getAIAnalysis(contentToAnalyze, post.getQuestion());
+            // Try to get AI analysis, reusing verdicts for claims already verified on other posts
+            FactCheckResponse aiResponse = analyzeWithKnownClaims(post, contentToAnalyze, observation);
             
             // Create and save fact check result
             FactCheck factCheck = createFactCheckFromResponse(post, aiResponse, contentToAnalyze, checkedBy);
@@ -68,12 +137,124 @@ public class FactCheckService {
             
         } catch (Exception e) {
             logger.error("Error during AI fact check, falling back to mock response", e);
+            eventPublisher.publish(FactCheckEvent.running(post.getId(), "AI service unavailable, using fallback analysis"));
             
             // Fallback to mock response
             FactCheckResponse mockResponse = generateMockResponse(contentToAnalyze, post.getQuestion());
             FactCheck factCheck = createFactCheckFromResponse(post, mockResponse, contentToAnalyze, checkedBy);
-            return factCheckRepository.save(factCheck);
+            FactCheck saved = factCheckRepository.save(factCheck);
+            observation.outcome(FactCheckMetrics.OUTCOME_FALLBACK);
+            return saved;
+        }
+    }
+
+    private FactCheckResponse analyzeWithKnownClaims(Post post, String contentToAnalyze,
+                                                     FactCheckMetrics.Observation observation) {
+        if (!isAiEnabled()) {
+            observation.outcome(FactCheckMetrics.OUTCOME_MOCK);
+            return getAIAnalysis(post.getId(), contentToAnalyze, post.getQuestion());
+        }
+
+        List<String> sentences = factClaimCache.extractClaims(post.getAnswer());
+        Map<String, FactCheckResponse.FactualClaim> known = factClaimCache.lookup(sentences);
+        // A sentence repeated within the post is sent to the AI and reported once; FactualClaim has no
+        // equals, so duplicates are dropped by their normalized text
+        Set<String> seenSentences = new HashSet<>();
+        List<String> unseen = sentences.stream()
+                .filter(sentence -> !known.containsKey(sentence))
+                .filter(sentence -> seenSentences.add(FactClaimCache.normalize(sentence)))
+                .collect(Collectors.toList());
+        Set<String> seenClaims = new HashSet<>();
+        List<FactCheckResponse.FactualClaim> knownClaims = sentences.stream()
+                .map(known::get)
+                .filter(claim -> claim != null && !FactClaimCache.isNoClaim(claim))
+                .filter(claim -> seenClaims.add(FactClaimCache.normalize(String.valueOf(claim.getClaim()))))
+                .collect(Collectors.toList());
+
+        // Every sentence is either a verified claim or known filler, and at least one is a claim
+        if (!sentences.isEmpty() && unseen.isEmpty() && !knownClaims.isEmpty()) {
+            logger.info("All {} claims for post ID {} were verified before, skipping AI call", knownClaims.size(), post.getId());
+            observation.outcome(FactCheckMetrics.OUTCOME_KNOWN_CLAIMS);
+            return responseFromKnownClaims(knownClaims);
         }
+
+        // The whole post stays in the prompt as context; only the unverified sentences are singled out
+        String content = known.isEmpty() ? contentToAnalyze : prepareClaimsForAnalysis(contentToAnalyze, unseen);
+        FactCheckResponse response = getAIAnalysis(post.getId(), content, post.getQuestion());
+        factClaimCache.store(factClaimCache.verdictsBySentence(unseen, response.getFactualClaims(),
+                Comparator.comparing(this::isSupported)));
+        observation.outcome(FactCheckMetrics.OUTCOME_AI);
+        return knownClaims.isEmpty() ? response : mergeKnownClaims(response, unseen.size(), knownClaims);
+    }
+
+    private String prepareClaimsForAnalysis(String contentToAnalyze, List<String> unseen) {
+        StringBuilder content = new StringBuilder(contentToAnalyze);
+        content.append("\n\nThe other sentences in this answer were checked before. ")
+                .append("Focus the factual_claims on these sentences, using the rest of the answer as context:");
+        for (String sentence : unseen) {
+            content.append("\n- ").append(sentence);
+        }
+        return content.toString();
+    }
+
+    private FactCheckResponse responseFromKnownClaims(List<FactCheckResponse.FactualClaim> claims) {
+        FactCheckResponse response = new FactCheckResponse();
+        applyScore(response, claimScore(claims));
+
+        List<String> corrections = claims.stream()
+                .filter(claim -> !isSupported(claim))
+                .map(claim -> "Disputed claim: " + claim.getClaim())
+                .collect(Collectors.toList());
+        if (corrections.isEmpty()) {
+            corrections.add("No major corrections identified");
+        }
+
+        response.setAnalysis("Every factual claim in this post has been verified before; the stored verdicts were reused.");
+        response.setSources(Arrays.asList("Previously verified claims"));
+        response.setCorrections(corrections);
+        response.setReasoning(String.format("%d of %d claims are supported by earlier verifications.",
+                claims.size() - (int) claims.stream().filter(claim -> !isSupported(claim)).count(), claims.size()));
+        response.setFactualClaims(claims);
+        return response;
+    }
+
+    private FactCheckResponse mergeKnownClaims(FactCheckResponse response, int unseenCount,
+                                               List<FactCheckResponse.FactualClaim> known) {
+        double aiScore = response.getAccuracyScore() != null ? response.getAccuracyScore() : claimScore(known);
+        double merged = (aiScore * unseenCount + claimScore(known) * known.size()) / (unseenCount + known.size());
+        applyScore(response, merged);
+
+        // The AI sees the whole post, so it may report a known claim again; keep its fresh verdict
+        List<FactCheckResponse.FactualClaim> allClaims = new ArrayList<>();
+        Set<String> reported = new HashSet<>();
+        if (response.getFactualClaims() != null) {
+            allClaims.addAll(response.getFactualClaims());
+            response.getFactualClaims().forEach(claim -> reported.add(FactClaimCache.normalize(String.valueOf(claim.getClaim()))));
+        }
+        known.stream()
+                .filter(claim -> !reported.contains(FactClaimCache.normalize(String.valueOf(claim.getClaim()))))
+                .forEach(allClaims::add);
+        response.setFactualClaims(allClaims);
+        return response;
+    }
+
+    private double claimScore(List<FactCheckResponse.FactualClaim> claims) {
+        return claims.stream()
+                .mapToDouble(claim -> {
+                    double confidence = claim.getConfidence() != null ? claim.getConfidence() : 0.5;
+                    return isSupported(claim) ? confidence : 1.0 - confidence;
+                })
+                .average()
+                .orElse(0.5);
+    }
+
+    private boolean isSupported(FactCheckResponse.FactualClaim claim) {
+        return claim.getVerificationStatus() != null
+                && SUPPORTED_CLAIM_STATUSES.contains(claim.getVerificationStatus().toUpperCase());
+    }
+
+    private boolean isAiEnabled() {
+        return !enableMock && !aiServiceApiKey.isEmpty();
     }
 
     private String prepareContentForAnalysis(Post post) {
@@ -88,29 +269,38 @@ public class FactCheckService {
         return content.toString();
     }
 
-    private FactCheckResponse getAIAnalysis(String content, String question) {
-        if (enableMock || aiServiceApiKey.isEmpty()) {
+    private FactCheckResponse getAIAnalysis(Long postId, String content, String question) {
+        if (!isAiEnabled()) {
             logger.info("Using mock AI response");
             return generateMockResponse(content, question);
         }
 
+        Timer.Sample aiCall = metrics.startAiCall();
         try {
             FactCheckRequest request = new FactCheckRequest(content, question, "social media post");
             
-            return webClient.post()
+            FactCheckResponse response = webClient.post()
                     .uri(aiServiceUrl)
                     .header("Authorization", "Bearer " + aiServiceApiKey)
                     .header("Content-Type", "application/json")
                     .bodyValue(createOpenAIRequest(content, question))
                     .retrieve()
                     .bodyToMono(FactCheckResponse.class)
+                    .doOnSubscribe(subscription -> eventPublisher.publish(
+                            FactCheckEvent.running(postId, "Waiting for AI analysis")))
+                    .doOnNext(body -> eventPublisher.publish(
+                            FactCheckEvent.running(postId, "AI analysis received")))
                     .timeout(Duration.ofSeconds(30))
                     .block();
+            metrics.stopAiCall(aiCall, null);
+            return response;
                     
         } catch (WebClientResponseException e) {
+            metrics.stopAiCall(aiCall, e);
             logger.error("AI service error: {}", e.getResponseBodyAsString());
             throw new RuntimeException("AI service unavailable", e);
         } catch (Exception e) {
+            metrics.stopAiCall(aiCall, e);
             logger.error("Error calling AI service", e);
             throw new RuntimeException("AI service error", e);
         }
@@ -132,7 +322,7 @@ public class FactCheckService {
             - sources (array of relevant sources)
             - corrections (array of corrections if needed)
             - reasoning (explanation of the assessment)
-            - factual_claims (array of specific claims with verification status)
+            - factual_claims (array of specific claims with verification status, quoting each claim exactly as written)
             """, question, content);
 
         return String.format("""
@@ -167,22 +357,7 @@ public class FactCheckService {
         double baseScore = Math.min(0.9, 0.6 + (contentLength / 1000.0) * 0.3);
         if (hasTechnicalTerms) baseScore = Math.min(0.95, baseScore + 0.1);
         
-        response.setAccuracyScore(baseScore);
-        
-        // Determine validity status based on score
-        if (baseScore >= 0.8) {
-            response.setValidityStatus("TRUE");
-            response.setConfidenceLevel("HIGH");
-        } else if (baseScore >= 0.6) {
-            response.setValidityStatus("PARTIALLY_TRUE");
-            response.setConfidenceLevel("MEDIUM");
-        } else if (baseScore >= 0.4) {
-            response.setValidityStatus("MISLEADING");
-            response.setConfidenceLevel("MEDIUM");
-        } else {
-            response.setValidityStatus("FALSE");
-            response.setConfidenceLevel("HIGH");
-        }
+        applyScore(response, baseScore);
         
         response.setAnalysis("This content has been analyzed for factual accuracy. The assessment is based on available information and may require additional verification for complete certainty.");
         response.setSources(Arrays.asList("Mock fact-checking service", "Content analysis"));
@@ -200,6 +375,25 @@ public class FactCheckService {
         return response;
     }
 
+    private void applyScore(FactCheckResponse response, double score) {
+        response.setAccuracyScore(score);
+        
+        // Determine validity status based on score
+        if (score >= 0.8) {
+            response.setValidityStatus("TRUE");
+            response.setConfidenceLevel("HIGH");
+        } else if (score >= 0.6) {
+            response.setValidityStatus("PARTIALLY_TRUE");
+            response.setConfidenceLevel("MEDIUM");
+        } else if (score >= 0.4) {
+            response.setValidityStatus("MISLEADING");
+            response.setConfidenceLevel("MEDIUM");
+        } else {
+            response.setValidityStatus("FALSE");
+            response.setConfidenceLevel("HIGH");
+        }
+    }
+
     private FactCheck createFactCheckFromResponse(Post post, FactCheckResponse response, String contentAnalyzed, String checkedBy) {
         FactCheck factCheck = new FactCheck();
         factCheck.setPost(post);
@@ -223,4 +417,8 @@ public class FactCheckService {
     public Optional<FactCheck> getLatestFactCheck(Post post) {
         return factCheckRepository.findFirstByPostOrderByCheckedAtDesc(post);
     }
+
+    public Optional<FactCheckStatus> getLatestStatus(Long postId) {
+        return factCheckRepository.findStatusesByPostId(postId, PageRequest.of(0, 1)).stream().findFirst();
+    }
 } 
\ No newline at end of file
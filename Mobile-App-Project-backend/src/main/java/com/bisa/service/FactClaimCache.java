@@ -0,0 +1,188 @@
+package com.bisa.service;
+
+import com.bisa.dto.FactCheckResponse;
+import com.bisa.model.FactClaim;
+import com.bisa.repository.FactClaimRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Verdicts for individual factual claims, reused across every post that repeats the claim.
+// Entries are keyed by the post sentences from extractClaims, on both lookup and store, so a later post
+// repeating a sentence finds it. Sentences the AI found no factual claim in are stored as NO_CLAIM markers,
+// which lets a post made only of known claims and filler skip the AI call.
+@Service
+public class FactClaimCache {
+    private static final Logger logger = LoggerFactory.getLogger(FactClaimCache.class);
+    private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?<=[.!?])\\s+");
+    private static final Pattern PUNCTUATION = Pattern.compile("[^\\p{L}\\p{N}\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MIN_CLAIM_WORDS = 4;
+    private static final int MAX_CLAIMS = 20;
+    public static final String NO_CLAIM = "NO_CLAIM";
+
+    private final FactClaimRepository factClaimRepository;
+    private final Cache<String, FactCheckResponse.FactualClaim> cache;
+    private final Duration maxAge;
+
+    public FactClaimCache(FactClaimRepository factClaimRepository,
+                          @Value("${factcheck.claims.cache-size:10000}") long cacheSize,
+                          @Value("${factcheck.claims.max-age-days:30}") long maxAgeDays) {
+        this.factClaimRepository = factClaimRepository;
+        this.maxAge = Duration.ofDays(maxAgeDays);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(maxAge)
+                .build();
+    }
+
+    // Splits text into sentence-level candidate claims, skipping fragments too short to be a claim
+    public List<String> extractClaims(String text) {
+        List<String> claims = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return claims;
+        }
+        for (String sentence : SENTENCE_BOUNDARY.split(text.trim())) {
+            String claim = sentence.trim();
+            if (WHITESPACE.split(claim).length >= MIN_CLAIM_WORDS) {
+                claims.add(claim);
+            }
+            if (claims.size() == MAX_CLAIMS) {
+                break;
+            }
+        }
+        return claims;
+    }
+
+    // Known verdicts keyed by the given claim text; cache first, then one IN query for the rest. Sentences
+    // that normalize to the same claim hash are looked up once and all receive its verdict.
+    public Map<String, FactCheckResponse.FactualClaim> lookup(List<String> claims) {
+        Map<String, List<String>> claimsByHash = new LinkedHashMap<>();
+        for (String claim : claims) {
+            claimsByHash.computeIfAbsent(hash(claim), key -> new ArrayList<>(1)).add(claim);
+        }
+
+        Map<String, FactCheckResponse.FactualClaim> known = new HashMap<>();
+        Map<String, FactCheckResponse.FactualClaim> cached = cache.getAllPresent(claimsByHash.keySet());
+        cached.forEach((hash, claim) -> claimsByHash.get(hash).forEach(sentence -> known.put(sentence, claim)));
+
+        Set<String> missing = new HashSet<>(claimsByHash.keySet());
+        missing.removeAll(cached.keySet());
+        if (!missing.isEmpty()) {
+            Instant verifiedAfter = Instant.now().minus(maxAge);
+            for (FactClaim stored : factClaimRepository.findByClaimHashInAndVerifiedAtAfter(missing, verifiedAfter)) {
+                FactCheckResponse.FactualClaim claim = toFactualClaim(stored);
+                cache.put(stored.getClaimHash(), claim);
+                claimsByHash.get(stored.getClaimHash()).forEach(sentence -> known.put(sentence, claim));
+            }
+        }
+        return known;
+    }
+
+    // Verdicts keyed by the sentence they were found in (see verdictsBySentence)
+    public void store(Map<String, FactCheckResponse.FactualClaim> verdictsBySentence) {
+        for (Map.Entry<String, FactCheckResponse.FactualClaim> entry : verdictsBySentence.entrySet()) {
+            FactCheckResponse.FactualClaim claim = entry.getValue();
+            String hash = hash(entry.getKey());
+            FactClaim stored = factClaimRepository.findByClaimHash(hash).orElseGet(FactClaim::new);
+            stored.setClaimHash(hash);
+            stored.setClaimText(claim.getClaim());
+            stored.setVerificationStatus(claim.getVerificationStatus());
+            stored.setConfidence(claim.getConfidence());
+            stored.setExplanation(claim.getExplanation());
+            stored.setVerifiedAt(Instant.now());
+            try {
+                factClaimRepository.save(stored);
+                cache.put(hash, claim);
+            } catch (DataIntegrityViolationException e) {
+                // Another check stored the same claim first; its verdict is just as good
+                logger.debug("Claim already stored by a concurrent fact check: {}", hash);
+            }
+        }
+    }
+
+    // Assigns the AI's claims to the sentences they were quoted from. A sentence matching several claims
+    // keeps the one preferred by `worse`; sentences matching none become NO_CLAIM markers. Returns nothing
+    // when the AI listed no claims at all, since that says nothing about individual sentences.
+    public Map<String, FactCheckResponse.FactualClaim> verdictsBySentence(
+            List<String> sentences, List<FactCheckResponse.FactualClaim> aiClaims,
+            Comparator<FactCheckResponse.FactualClaim> worse) {
+        Map<String, FactCheckResponse.FactualClaim> verdicts = new LinkedHashMap<>();
+        if (aiClaims == null || aiClaims.isEmpty()) {
+            return verdicts;
+        }
+        for (String sentence : sentences) {
+            String normalizedSentence = normalize(sentence);
+            FactCheckResponse.FactualClaim verdict = null;
+            for (FactCheckResponse.FactualClaim claim : aiClaims) {
+                if (claim.getClaim() == null || claim.getVerificationStatus() == null) {
+                    continue;
+                }
+                String normalizedClaim = normalize(claim.getClaim());
+                boolean matches = !normalizedClaim.isEmpty()
+                        && (normalizedSentence.contains(normalizedClaim) || normalizedClaim.contains(normalizedSentence));
+                if (matches && (verdict == null || worse.compare(claim, verdict) < 0)) {
+                    verdict = claim;
+                }
+            }
+            verdicts.put(sentence, verdict != null ? verdict : noClaim(sentence));
+        }
+        return verdicts;
+    }
+
+    public static boolean isNoClaim(FactCheckResponse.FactualClaim claim) {
+        return NO_CLAIM.equals(claim.getVerificationStatus());
+    }
+
+    private static FactCheckResponse.FactualClaim noClaim(String sentence) {
+        FactCheckResponse.FactualClaim marker = new FactCheckResponse.FactualClaim();
+        marker.setClaim(sentence);
+        marker.setVerificationStatus(NO_CLAIM);
+        marker.setExplanation("No factual claim found in this sentence");
+        return marker;
+    }
+
+    static String normalize(String claim) {
+        String lower = claim.toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(PUNCTUATION.matcher(lower).replaceAll(" ")).replaceAll(" ").trim();
+    }
+
+    static String hash(String claim) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(claim).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private FactCheckResponse.FactualClaim toFactualClaim(FactClaim stored) {
+        FactCheckResponse.FactualClaim claim = new FactCheckResponse.FactualClaim();
+        claim.setClaim(stored.getClaimText());
+        claim.setVerificationStatus(stored.getVerificationStatus());
+        claim.setConfidence(stored.getConfidence());
+        claim.setExplanation(stored.getExplanation());
+        return claim;
+    }
+}
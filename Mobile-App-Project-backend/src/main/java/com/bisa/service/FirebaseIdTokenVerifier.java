@@ -0,0 +1,29 @@
+package com.bisa.service;
+
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+
+import java.time.Instant;
+import java.util.Set;
+
+// Verification through the Firebase Admin SDK, which fetches Google's signing certificates as needed
+public class FirebaseIdTokenVerifier implements IdTokenVerifier {
+    // Rejections that will not change on retry; certificate fetch failures and the like are transient
+    private static final Set<AuthErrorCode> FINAL_REJECTIONS = Set.of(
+            AuthErrorCode.INVALID_ID_TOKEN, AuthErrorCode.EXPIRED_ID_TOKEN, AuthErrorCode.REVOKED_ID_TOKEN);
+
+    @Override
+    public VerifiedIdToken verify(String idToken) throws InvalidIdTokenException {
+        FirebaseToken token;
+        try {
+            token = FirebaseAuth.getInstance().verifyIdToken(idToken);
+        } catch (FirebaseAuthException e) {
+            throw new InvalidIdTokenException(e.getMessage(), FINAL_REJECTIONS.contains(e.getAuthErrorCode()), e);
+        }
+        Object exp = token.getClaims().get("exp");
+        Instant expiresAt = exp instanceof Number seconds ? Instant.ofEpochSecond(seconds.longValue()) : Instant.EPOCH;
+        return new VerifiedIdToken(token.getUid(), token.getEmail(), token.getClaims(), expiresAt);
+    }
+}
@@ -0,0 +1,359 @@
+package com.bisa.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory follow graph. Each user's adjacency list is a sorted set of user IDs stored as
+// [varint count][varint first id][varint delta]..., in both directions. Lists are immutable
+// byte arrays replaced on write, so reads never lock; writes to the same pair are serialized by a
+// striped lock so both directions always agree. Lists are keyed by boxed Long in ConcurrentHashMaps,
+// which costs roughly 50 bytes of key and node overhead per user and direction on top of the list itself;
+// FollowGraphBenchmark (src/test) measures the total.
+public final class FollowGraph {
+    private static final long[] EMPTY = new long[0];
+    private static final byte[] EMPTY_LIST = encode(EMPTY, 0);
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Long, byte[]> following;
+    private final Map<Long, byte[]> followers;
+    private final AtomicLong edgeCount;
+    private final Object[] pairLocks = new Object[LOCK_STRIPES];
+
+    private FollowGraph(Map<Long, byte[]> following, Map<Long, byte[]> followers, long edgeCount) {
+        this.following = following;
+        this.followers = followers;
+        this.edgeCount = new AtomicLong(edgeCount);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            pairLocks[i] = new Object();
+        }
+    }
+
+    public static FollowGraph empty() {
+        return new FollowGraph(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), 0);
+    }
+
+    public boolean isFollowing(long followerId, long followedUserId) {
+        byte[] out = following.get(followerId);
+        byte[] in = followers.get(followedUserId);
+        if (out == null || in == null) {
+            return false;
+        }
+        // Scan whichever side is shorter
+        return count(out) <= count(in) ? contains(out, followedUserId) : contains(in, followerId);
+    }
+
+    public long[] following(long userId) {
+        return decode(following.get(userId));
+    }
+
+    public long[] followers(long userId) {
+        return decode(followers.get(userId));
+    }
+
+    public int followingCount(long userId) {
+        return count(following.get(userId));
+    }
+
+    public int followerCount(long userId) {
+        return count(followers.get(userId));
+    }
+
+    // Users that userId follows and that follow userId back
+    public long[] mutuals(long userId) {
+        return intersect(following.get(userId), followers.get(userId));
+    }
+
+    // Users that follow both a and b
+    public long[] commonFollowers(long a, long b) {
+        return intersect(followers.get(a), followers.get(b));
+    }
+
+    public boolean addEdge(long followerId, long followedUserId) {
+        synchronized (lockFor(followerId, followedUserId)) {
+            boolean[] added = new boolean[1];
+            following.compute(followerId, (id, list) -> {
+                byte[] updated = insert(list, followedUserId);
+                added[0] = updated != list;
+                return updated;
+            });
+            if (added[0]) {
+                followers.compute(followedUserId, (id, list) -> insert(list, followerId));
+                edgeCount.incrementAndGet();
+            }
+            return added[0];
+        }
+    }
+
+    public boolean removeEdge(long followerId, long followedUserId) {
+        synchronized (lockFor(followerId, followedUserId)) {
+            boolean[] removed = new boolean[1];
+            following.computeIfPresent(followerId, (id, list) -> {
+                byte[] updated = remove(list, followedUserId);
+                removed[0] = updated != list;
+                return count(updated) == 0 ? null : updated;
+            });
+            if (removed[0]) {
+                followers.computeIfPresent(followedUserId, (id, list) -> {
+                    byte[] updated = remove(list, followerId);
+                    return count(updated) == 0 ? null : updated;
+                });
+                edgeCount.decrementAndGet();
+            }
+            return removed[0];
+        }
+    }
+
+    public long edgeCount() {
+        return edgeCount.get();
+    }
+
+    public int userCount() {
+        return Math.max(following.size(), followers.size());
+    }
+
+    // Splices the new ID into the encoded list: the bytes before and after it are copied as-is and only
+    // the count, the new delta and the following element's delta are re-encoded, into one exact-size array
+    static byte[] insert(byte[] list, long value) {
+        if (list == null || list.length == 0) {
+            return encode(new long[]{value}, 1);
+        }
+        Cursor cursor = new Cursor(list);
+        int start = cursor.position;
+        long previous = 0;
+        for (int i = 0; i < cursor.count; i++) {
+            int elementStart = cursor.position;
+            long current = previous + cursor.next();
+            if (current == value) {
+                return list;
+            }
+            if (current > value) {
+                return splice(list, cursor.count + 1, start, elementStart,
+                        new long[]{value - previous, current - value}, cursor.position);
+            }
+            previous = current;
+        }
+        return splice(list, cursor.count + 1, start, list.length, new long[]{value - previous}, list.length);
+    }
+
+    // Drops the ID and folds its delta into the next element's, leaving the rest of the bytes untouched
+    static byte[] remove(byte[] list, long value) {
+        if (list == null || list.length == 0) {
+            return list;
+        }
+        Cursor cursor = new Cursor(list);
+        int start = cursor.position;
+        long current = 0;
+        for (int i = 0; i < cursor.count; i++) {
+            int elementStart = cursor.position;
+            long delta = cursor.next();
+            current += delta;
+            if (current > value) {
+                return list;
+            }
+            if (current == value) {
+                if (cursor.count == 1) {
+                    return EMPTY_LIST;
+                }
+                if (i == cursor.count - 1) {
+                    return splice(list, cursor.count - 1, start, elementStart, EMPTY, list.length);
+                }
+                long merged = delta + cursor.next();
+                return splice(list, cursor.count - 1, start, elementStart, new long[]{merged}, cursor.position);
+            }
+        }
+        return list;
+    }
+
+    // [varint count][list[start, cut)][deltas][list[resume, end)]
+    private static byte[] splice(byte[] list, int count, int start, int cut, long[] deltas, int resume) {
+        int size = varintSize(count) + (cut - start) + (list.length - resume);
+        for (long delta : deltas) {
+            size += varintSize(delta);
+        }
+        byte[] result = new byte[size];
+        int position = writeVarint(result, 0, count);
+        System.arraycopy(list, start, result, position, cut - start);
+        position += cut - start;
+        for (long delta : deltas) {
+            position = writeVarint(result, position, delta);
+        }
+        System.arraycopy(list, resume, result, position, list.length - resume);
+        return result;
+    }
+
+    private static boolean contains(byte[] list, long value) {
+        Cursor cursor = new Cursor(list);
+        long current = 0;
+        for (int i = 0; i < cursor.count; i++) {
+            current += cursor.next();
+            if (current >= value) {
+                return current == value;
+            }
+        }
+        return false;
+    }
+
+    private static long[] intersect(byte[] a, byte[] b) {
+        if (a == null || b == null) {
+            return EMPTY;
+        }
+        Cursor left = new Cursor(a);
+        Cursor right = new Cursor(b);
+        long[] result = new long[Math.min(left.count, right.count)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        long x = i < left.count ? left.next() : 0;
+        long y = j < right.count ? right.next() : 0;
+        while (i < left.count && j < right.count) {
+            if (x == y) {
+                result[size++] = x;
+                if (++i < left.count) x += left.next();
+                if (++j < right.count) y += right.next();
+            } else if (x < y) {
+                if (++i < left.count) x += left.next();
+            } else {
+                if (++j < right.count) y += right.next();
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static int count(byte[] list) {
+        return list == null ? 0 : new Cursor(list).count;
+    }
+
+    static long[] decode(byte[] list) {
+        if (list == null) {
+            return EMPTY;
+        }
+        Cursor cursor = new Cursor(list);
+        long[] ids = new long[cursor.count];
+        long current = 0;
+        for (int i = 0; i < ids.length; i++) {
+            current += cursor.next();
+            ids[i] = current;
+        }
+        return ids;
+    }
+
+    // ids must be sorted and distinct
+    static byte[] encode(long[] ids, int length) {
+        int size = varintSize(length);
+        long previous = 0;
+        for (int i = 0; i < length; i++) {
+            size += varintSize(ids[i] - previous);
+            previous = ids[i];
+        }
+        byte[] result = new byte[size];
+        int position = writeVarint(result, 0, length);
+        previous = 0;
+        for (int i = 0; i < length; i++) {
+            position = writeVarint(result, position, ids[i] - previous);
+            previous = ids[i];
+        }
+        return result;
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private Object lockFor(long followerId, long followedUserId) {
+        long hash = followerId * 31 + followedUserId;
+        return pairLocks[(int) ((hash ^ (hash >>> 32)) & (LOCK_STRIPES - 1))];
+    }
+
+    private static final class Cursor {
+        private final byte[] data;
+        private int position;
+        private final int count;
+
+        private Cursor(byte[] data) {
+            this.data = data;
+            this.count = data.length == 0 ? 0 : (int) next();
+        }
+
+        private long next() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    // Bulk loader: collects edges into growable primitive arrays, then sorts and encodes each list once
+    public static final class Builder {
+        private final Map<Long, LongList> following = new HashMap<>();
+        private final Map<Long, LongList> followers = new HashMap<>();
+
+        public Builder add(long followerId, long followedUserId) {
+            following.computeIfAbsent(followerId, id -> new LongList()).add(followedUserId);
+            followers.computeIfAbsent(followedUserId, id -> new LongList()).add(followerId);
+            return this;
+        }
+
+        public FollowGraph build() {
+            Map<Long, byte[]> out = new ConcurrentHashMap<>(Math.max(16, following.size() * 4 / 3));
+            Map<Long, byte[]> in = new ConcurrentHashMap<>(Math.max(16, followers.size() * 4 / 3));
+            long edges = 0;
+            for (Map.Entry<Long, LongList> entry : following.entrySet()) {
+                byte[] list = entry.getValue().toSortedList();
+                edges += count(list);
+                out.put(entry.getKey(), list);
+            }
+            following.clear();
+            for (Map.Entry<Long, LongList> entry : followers.entrySet()) {
+                in.put(entry.getKey(), entry.getValue().toSortedList());
+            }
+            followers.clear();
+            return new FollowGraph(out, in, edges);
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        // Sorts, drops duplicate rows and encodes
+        private byte[] toSortedList() {
+            Arrays.sort(values, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || values[i] != values[distinct - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            return distinct == 0 ? EMPTY_LIST : encode(values, distinct);
+        }
+    }
+}
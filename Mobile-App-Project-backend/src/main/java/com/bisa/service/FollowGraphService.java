@@ -0,0 +1,172 @@
+package com.bisa.service;
+
+import com.bisa.model.Follow;
+import com.bisa.repository.FollowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Serves relationship checks from the in-memory FollowGraph, loaded from follows at startup and
+// updated after every committed follow write. Falls back to the database until the graph has loaded.
+@Service
+public class FollowGraphService {
+    private static final Logger logger = LoggerFactory.getLogger(FollowGraphService.class);
+
+    private final FollowRepository followRepository;
+
+    @Value("${followgraph.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    private volatile FollowGraph graph;
+    // Writes that arrive while the graph is loading, replayed once it is published
+    private final List<long[]> pendingWrites = new ArrayList<>();
+
+    public FollowGraphService(FollowRepository followRepository) {
+        this.followRepository = followRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startedAt = System.currentTimeMillis();
+        FollowGraph.Builder builder = new FollowGraph.Builder();
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = followRepository.findEdgesAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : batch) {
+                afterId = ((Number) row[0]).longValue();
+                if (row[1] != null && row[2] != null) {
+                    builder.add(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+                }
+            }
+        } while (batch.size() == loadBatchSize);
+
+        FollowGraph loaded = builder.build();
+        synchronized (pendingWrites) {
+            for (long[] write : pendingWrites) {
+                apply(loaded, write);
+            }
+            pendingWrites.clear();
+            graph = loaded;
+        }
+        logger.info("Loaded follow graph: {} users, {} edges in {} ms",
+                loaded.userCount(), loaded.edgeCount(), System.currentTimeMillis() - startedAt);
+    }
+
+    public boolean isReady() {
+        return graph != null;
+    }
+
+    public boolean isFollowing(Long followerId, Long followedUserId) {
+        if (followerId == null || followedUserId == null) {
+            return false;
+        }
+        FollowGraph current = graph;
+        if (current == null) {
+            return followRepository.findByFollowerIdAndFollowedUserId(followerId, followedUserId).isPresent();
+        }
+        return current.isFollowing(followerId, followedUserId);
+    }
+
+    // The subset of userIds that followerId follows
+    public Set<Long> followedAmong(Long followerId, Collection<Long> userIds) {
+        if (followerId == null || userIds.isEmpty()) {
+            return Set.of();
+        }
+        FollowGraph current = graph;
+        if (current == null) {
+            return new HashSet<>(followRepository.findFollowedUserIdsAmong(followerId, userIds));
+        }
+        Set<Long> followed = new HashSet<>();
+        for (Long userId : userIds) {
+            if (current.isFollowing(followerId, userId)) {
+                followed.add(userId);
+            }
+        }
+        return followed;
+    }
+
+    public long[] following(Long userId) {
+        return requireGraph().following(userId);
+    }
+
+    public long[] followers(Long userId) {
+        return requireGraph().followers(userId);
+    }
+
+    public long[] mutuals(Long userId) {
+        return requireGraph().mutuals(userId);
+    }
+
+    public long[] commonFollowers(Long userId, Long otherUserId) {
+        return requireGraph().commonFollowers(userId, otherUserId);
+    }
+
+    public void followCreated(Follow follow) {
+        if (follow.getFollower() != null && follow.getFollowedUser() != null) {
+            write(new long[]{1, follow.getFollower().getId(), follow.getFollowedUser().getId()});
+        }
+    }
+
+    public void followDeleted(Follow follow) {
+        if (follow.getFollower() != null && follow.getFollowedUser() != null) {
+            write(new long[]{0, follow.getFollower().getId(), follow.getFollowedUser().getId()});
+        }
+    }
+
+    // Applied once the surrounding transaction commits, so a rolled-back follow never reaches the graph
+    private void write(long[] write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(write);
+                }
+            });
+        } else {
+            applyNow(write);
+        }
+    }
+
+    private void applyNow(long[] write) {
+        FollowGraph current = graph;
+        if (current == null) {
+            synchronized (pendingWrites) {
+                current = graph;
+                if (current == null) {
+                    pendingWrites.add(write);
+                    return;
+                }
+            }
+        }
+        apply(current, write);
+    }
+
+    private void apply(FollowGraph target, long[] write) {
+        if (write[0] == 1) {
+            target.addEdge(write[1], write[2]);
+        } else {
+            target.removeEdge(write[1], write[2]);
+        }
+    }
+
+    private FollowGraph requireGraph() {
+        FollowGraph current = graph;
+        if (current == null) {
+            throw new IllegalStateException("Follow graph is still loading");
+        }
+        return current;
+    }
+}
@@ -0,0 +1,198 @@
+package com.bisa.service;
+
+import com.bisa.dto.FollowSuggestion;
+import com.bisa.dto.UserCard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// "Who to follow": friends-of-friends ranked by how many of the user's follows already follow each
+// candidate. Results are precomputed for recently active users and served from memory; a user with
+// nothing cached gets an empty list while their suggestions are computed in the background.
+@Service
+public class FollowSuggestionService {
+    private static final Logger logger = LoggerFactory.getLogger(FollowSuggestionService.class);
+
+    private final FollowGraphService followGraphService;
+    private final UserCardCache userCardCache;
+    private final Cache<Long, List<FollowSuggestion>> cache;
+    // Users who asked for suggestions recently, refreshed in the background. Access-ordered, so once
+    // max-active-users is reached the least recently seen user makes room for the new one.
+    private final Map<Long, Instant> activeUsers;
+    // Users whose first computation is queued or running, so repeat requests don't queue it again
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // Graph traversals stay off request threads; when the queue is full the request is dropped and
+    // retried on the user's next visit
+    private final ThreadPoolExecutor computeExecutor;
+
+    @Value("${suggestions.size:20}")
+    private int suggestionCount;
+
+    // Cap on how many followed accounts are expanded per user, so heavy followers stay cheap
+    @Value("${suggestions.max-fanout:1000}")
+    private int maxFanout;
+
+    @Value("${suggestions.active-window-hours:24}")
+    private long activeWindowHours;
+
+    public FollowSuggestionService(FollowGraphService followGraphService, UserCardCache userCardCache,
+                                   @Value("${suggestions.cache-ttl-minutes:30}") long cacheTtlMinutes,
+                                   @Value("${suggestions.cache-size:20000}") long cacheSize,
+                                   @Value("${suggestions.max-active-users:10000}") int maxActiveUsers,
+                                   @Value("${suggestions.compute-queue-capacity:1000}") int computeQueueCapacity) {
+        this.followGraphService = followGraphService;
+        this.userCardCache = userCardCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+        this.activeUsers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Instant> eldest) {
+                return size() > maxActiveUsers;
+            }
+        };
+        this.computeExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(computeQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "follow-suggestions");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Largest page getSuggestions can fill; each user's list is cut to this many candidates
+    public int maxSuggestions() {
+        return suggestionCount;
+    }
+
+    public List<FollowSuggestion> getSuggestions(Long userId, int limit) {
+        markActive(userId);
+        List<FollowSuggestion> suggestions = cache.getIfPresent(userId);
+        if (suggestions == null) {
+            if (followGraphService.isReady()) {
+                queueCompute(userId);
+            }
+            return List.of();
+        }
+        // Drop anyone followed since the list was computed
+        return suggestions.stream()
+                .filter(suggestion -> !followGraphService.isFollowing(userId, suggestion.getUserId()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(initialDelayString = "${suggestions.refresh-initial-delay-ms:120000}",
+               fixedDelayString = "${suggestions.refresh-interval-ms:600000}")
+    public void refreshActiveUsers() {
+        if (!followGraphService.isReady()) {
+            return;
+        }
+
+        Instant activeSince = Instant.now().minus(Duration.ofHours(activeWindowHours));
+        List<Long> userIds;
+        synchronized (activeUsers) {
+            activeUsers.values().removeIf(lastSeen -> lastSeen.isBefore(activeSince));
+            userIds = new ArrayList<>(activeUsers.keySet());
+        }
+        int refreshed = 0;
+        for (Long userId : userIds) {
+            cache.put(userId, compute(userId));
+            refreshed++;
+        }
+        logger.info("Refreshed follow suggestions for {} active users", refreshed);
+    }
+
+    List<FollowSuggestion> compute(Long userId) {
+        long[] following = followGraphService.following(userId);
+        Map<Long, int[]> scores = new HashMap<>();
+        int expanded = Math.min(following.length, maxFanout);
+        for (int i = 0; i < expanded; i++) {
+            for (long candidate : followGraphService.following(following[i])) {
+                if (candidate != userId && Arrays.binarySearch(following, candidate) < 0) {
+                    scores.computeIfAbsent(candidate, id -> new int[1])[0]++;
+                }
+            }
+        }
+
+        // Bounded min-heap keeps the top suggestionCount candidates; ties favour the lower user ID
+        Comparator<Map.Entry<Long, int[]>> byScore = Comparator
+                .comparingInt((Map.Entry<Long, int[]> entry) -> entry.getValue()[0])
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Long, int[]>> top = new PriorityQueue<>(byScore);
+        for (Map.Entry<Long, int[]> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > suggestionCount) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, int[]>> ranked = new ArrayList<>(top);
+        ranked.sort(byScore.reversed());
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, UserCard> users = userCardCache.getAll(ranked.stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+        List<FollowSuggestion> suggestions = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, int[]> entry : ranked) {
+            UserCard user = users.get(entry.getKey());
+            if (user != null) {
+                suggestions.add(new FollowSuggestion(user.getId(), user.getName(), user.getAvatar(),
+                        user.getCredentials(), entry.getValue()[0]));
+            }
+        }
+        return List.copyOf(suggestions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        computeExecutor.shutdownNow();
+    }
+
+    private void queueCompute(Long userId) {
+        if (!pending.add(userId)) {
+            return;
+        }
+        try {
+            computeExecutor.execute(() -> {
+                try {
+                    cache.put(userId, compute(userId));
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to compute follow suggestions for user {}", userId, e);
+                } finally {
+                    pending.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(userId);
+        }
+    }
+
+    private void markActive(Long userId) {
+        synchronized (activeUsers) {
+            activeUsers.put(userId, Instant.now());
+        }
+    }
+}
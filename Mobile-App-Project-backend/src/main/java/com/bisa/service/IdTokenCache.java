@@ -0,0 +1,108 @@
+package com.bisa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Caching decorator for an IdTokenVerifier, keyed by the token's SHA-256, so a client making many
+// calls per screen pays the signature check once per token. Entries expire at the token's own exp.
+public class IdTokenCache implements IdTokenVerifier {
+    private final IdTokenVerifier delegate;
+    private final Cache<String, VerifiedIdToken> verified;
+    private final Cache<String, InvalidIdTokenException> rejected;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejectedHits;
+
+    public IdTokenCache(IdTokenVerifier delegate, MeterRegistry registry, long size, long maxTtlMinutes,
+                        long rejectedTtlSeconds) {
+        this.delegate = delegate;
+        long maxTtlNanos = TimeUnit.MINUTES.toNanos(maxTtlMinutes);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfter(new Expiry<String, VerifiedIdToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedIdToken token, long currentTime) {
+                        return Math.min(maxTtlNanos, nanosUntilExpiry(token));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedIdToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedIdToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.rejected = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, size / 10))
+                .expireAfterWrite(Duration.ofSeconds(rejectedTtlSeconds))
+                .build();
+        this.hits = counter(registry, "hit");
+        this.misses = counter(registry, "miss");
+        this.rejectedHits = counter(registry, "rejected_hit");
+    }
+
+    @Override
+    public VerifiedIdToken verify(String idToken) throws InvalidIdTokenException {
+        String key = hash(idToken);
+        VerifiedIdToken token = verified.getIfPresent(key);
+        if (token != null) {
+            hits.increment();
+            return token;
+        }
+        InvalidIdTokenException rejection = rejected.getIfPresent(key);
+        if (rejection != null) {
+            rejectedHits.increment();
+            throw rejection;
+        }
+
+        misses.increment();
+        try {
+            token = delegate.verify(idToken);
+        } catch (InvalidIdTokenException e) {
+            // Transient failures (e.g. certificate fetch errors) are retried on the next request
+            if (e.isPermanent()) {
+                rejected.put(key, e);
+            }
+            throw e;
+        }
+        if (nanosUntilExpiry(token) > 0) {
+            verified.put(key, token);
+        }
+        return token;
+    }
+
+    private static long nanosUntilExpiry(VerifiedIdToken token) {
+        long millis = token.expiresAt().toEpochMilli() - System.currentTimeMillis();
+        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("auth.token_cache")
+                .description("ID token verifications answered from cache or verified")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,6 @@
+package com.bisa.service;
+
+// Verifies a bearer ID token and returns its subject and claims; see AuthConfig for the implementations
+public interface IdTokenVerifier {
+    VerifiedIdToken verify(String idToken) throws InvalidIdTokenException;
+}
@@ -0,0 +1,20 @@
+package com.bisa.service;
+
+public class InvalidIdTokenException extends Exception {
+    // True when retrying the same token cannot succeed (bad signature, expired, wrong audience)
+    private final boolean permanent;
+
+    public InvalidIdTokenException(String message, boolean permanent) {
+        super(message);
+        this.permanent = permanent;
+    }
+
+    public InvalidIdTokenException(String message, boolean permanent, Throwable cause) {
+        super(message, cause);
+        this.permanent = permanent;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
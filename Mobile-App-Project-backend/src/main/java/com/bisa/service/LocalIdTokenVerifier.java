@@ -0,0 +1,197 @@
+package com.bisa.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Offline verification of Firebase-format RS256 ID tokens against public keys parsed once at startup.
+// Keys come from a JWKS file, a Google x509 certificate map ({"kid": "-----BEGIN CERTIFICATE-----..."})
+// or a single PEM key/certificate that matches any kid. No network calls, so auth can be load-tested offline.
+public class LocalIdTokenVerifier implements IdTokenVerifier {
+    private static final String ANY_KID = "";
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+    private static final Base64.Decoder BASE64URL = Base64.getUrlDecoder();
+
+    private final Map<String, PublicKey> keys;
+    private final String audience;
+    private final String issuer;
+    private final long clockSkewSeconds;
+    private final ObjectReader jsonReader;
+    // Signature instances are not thread-safe; one per thread, re-initialised per token
+    private final ThreadLocal<Signature> signatures = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA256withRSA");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA256withRSA not available", e);
+        }
+    });
+
+    public LocalIdTokenVerifier(Map<String, PublicKey> keys, String projectId, ObjectMapper objectMapper,
+                                long clockSkewSeconds) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No public keys configured for local token verification");
+        }
+        if (projectId == null || projectId.isBlank()) {
+            throw new IllegalArgumentException("A project ID is required for local token verification");
+        }
+        this.keys = Map.copyOf(keys);
+        this.audience = projectId;
+        this.issuer = ISSUER_PREFIX + projectId;
+        this.clockSkewSeconds = clockSkewSeconds;
+        this.jsonReader = objectMapper.readerFor(JsonNode.class);
+    }
+
+    public static LocalIdTokenVerifier fromFile(Path keyFile, String projectId, ObjectMapper objectMapper,
+                                                long clockSkewSeconds) throws IOException, GeneralSecurityException {
+        return new LocalIdTokenVerifier(loadKeys(Files.readString(keyFile), objectMapper), projectId,
+                objectMapper, clockSkewSeconds);
+    }
+
+    @Override
+    public VerifiedIdToken verify(String idToken) throws InvalidIdTokenException {
+        int headerEnd = idToken.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : idToken.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || idToken.indexOf('.', payloadEnd + 1) >= 0) {
+            throw invalid("Malformed token");
+        }
+
+        JsonNode header = decode(idToken, 0, headerEnd);
+        if (!"RS256".equals(header.path("alg").asText())) {
+            throw invalid("Unsupported algorithm");
+        }
+        PublicKey key = keys.get(header.path("kid").asText());
+        if (key == null) {
+            key = keys.get(ANY_KID);
+        }
+        if (key == null) {
+            throw invalid("Unknown signing key");
+        }
+        // The JDK compares the decoded digest with MessageDigest.isEqual, which is constant-time
+        if (!signatureMatches(key, idToken, payloadEnd)) {
+            throw invalid("Invalid signature");
+        }
+
+        JsonNode claims = decode(idToken, headerEnd + 1, payloadEnd);
+        long now = Instant.now().getEpochSecond();
+        long exp = claims.path("exp").asLong(0);
+        if (exp == 0 || now > exp + clockSkewSeconds) {
+            throw invalid("Token expired");
+        }
+        if (!claims.path("iat").canConvertToLong() || claims.path("iat").asLong() > now + clockSkewSeconds) {
+            throw invalid("Token issued in the future");
+        }
+        if (!audience.equals(claims.path("aud").asText()) || !issuer.equals(claims.path("iss").asText())) {
+            throw invalid("Token issued for another project");
+        }
+        String uid = claims.path("sub").asText();
+        if (uid.isEmpty() || uid.length() > 128) {
+            throw invalid("Invalid subject");
+        }
+
+        Map<String, Object> claimMap = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = claims.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            claimMap.put(field.getKey(), toValue(field.getValue()));
+        }
+        String email = claims.hasNonNull("email") ? claims.get("email").asText() : null;
+        return new VerifiedIdToken(uid, email, claimMap, Instant.ofEpochSecond(exp));
+    }
+
+    private boolean signatureMatches(PublicKey key, String idToken, int signedLength) throws InvalidIdTokenException {
+        try {
+            Signature signature = signatures.get();
+            signature.initVerify(key);
+            signature.update(idToken.getBytes(StandardCharsets.US_ASCII), 0, signedLength);
+            return signature.verify(BASE64URL.decode(idToken.substring(signedLength + 1)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new InvalidIdTokenException("Invalid signature", true, e);
+        }
+    }
+
+    private JsonNode decode(String idToken, int start, int end) throws InvalidIdTokenException {
+        try {
+            JsonNode node = jsonReader.readTree(new ByteArrayInputStream(BASE64URL.decode(idToken.substring(start, end))));
+            if (node == null || !node.isObject()) {
+                throw invalid("Malformed token");
+            }
+            return node;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidIdTokenException("Malformed token", true, e);
+        }
+    }
+
+    private static Object toValue(JsonNode node) {
+        if (node.isTextual()) {
+            return node.asText();
+        }
+        if (node.isIntegralNumber()) {
+            return node.asLong();
+        }
+        if (node.isBoolean()) {
+            return node.asBoolean();
+        }
+        return node.isValueNode() ? node.asText() : node;
+    }
+
+    private static InvalidIdTokenException invalid(String message) {
+        return new InvalidIdTokenException(message, true);
+    }
+
+    static Map<String, PublicKey> loadKeys(String content, ObjectMapper objectMapper)
+            throws IOException, GeneralSecurityException {
+        Map<String, PublicKey> keys = new HashMap<>();
+        if (!content.trim().startsWith("{")) {
+            keys.put(ANY_KID, parsePem(content));
+            return keys;
+        }
+
+        JsonNode root = objectMapper.readTree(content);
+        if (root.has("keys")) {
+            KeyFactory rsa = KeyFactory.getInstance("RSA");
+            for (JsonNode jwk : root.get("keys")) {
+                if ("RSA".equals(jwk.path("kty").asText())) {
+                    BigInteger modulus = new BigInteger(1, BASE64URL.decode(jwk.path("n").asText()));
+                    BigInteger exponent = new BigInteger(1, BASE64URL.decode(jwk.path("e").asText()));
+                    keys.put(jwk.path("kid").asText(), rsa.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+                }
+            }
+        } else {
+            Iterator<Map.Entry<String, JsonNode>> certificates = root.fields();
+            while (certificates.hasNext()) {
+                Map.Entry<String, JsonNode> certificate = certificates.next();
+                keys.put(certificate.getKey(), parsePem(certificate.getValue().asText()));
+            }
+        }
+        return keys;
+    }
+
+    private static PublicKey parsePem(String pem) throws GeneralSecurityException {
+        if (pem.contains("BEGIN CERTIFICATE")) {
+            return CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(pem.getBytes(StandardCharsets.US_ASCII)))
+                    .getPublicKey();
+        }
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.bisa.service;
+
+import com.bisa.dto.CursorPage;
+import com.bisa.dto.NotificationCursor;
+import com.bisa.dto.NotificationView;
+import com.bisa.model.Notification;
+import com.bisa.repository.NotificationRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+// Notification writes keep user_stats.unread_notifications in step, so the badge is a single row read
+@Service
+@Transactional
+public class NotificationService {
+    private final NotificationRepository notificationRepository;
+    private final UserStatsService userStatsService;
+
+    public NotificationService(NotificationRepository notificationRepository, UserStatsService userStatsService) {
+        this.notificationRepository = notificationRepository;
+        this.userStatsService = userStatsService;
+    }
+
+    // Newest first; pass the previous page's nextCursor to continue
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationView> getInbox(Long userId, String cursor, int pageSize) {
+        PageRequest page = PageRequest.of(0, pageSize);
+        List<NotificationView> notifications;
+        if (cursor == null || cursor.isEmpty()) {
+            notifications = notificationRepository.findInbox(userId, page);
+        } else {
+            NotificationCursor after = NotificationCursor.parse(cursor);
+            notifications = notificationRepository.findInboxBefore(userId, after.timestamp(), after.id(), page);
+        }
+        String nextCursor = notifications.size() == pageSize
+                ? notifications.get(notifications.size() - 1).getCursor()
+                : null;
+        return new CursorPage<>(notifications, nextCursor);
+    }
+
+    // Not read-only: a user without a stats row yet gets it created here, once
+    public int getUnreadCount(Long userId) {
+        return Math.max(0, userStatsService.getStats(userId).getUnreadNotifications());
+    }
+
+    // Marks everything up to and including the cursor read (everything when it is absent) in one UPDATE;
+    // notifications that arrived after the client loaded its inbox stay unread
+    public int markRead(Long userId, String cursor) {
+        int marked;
+        if (cursor == null || cursor.isEmpty()) {
+            marked = notificationRepository.markAllRead(userId);
+        } else {
+            NotificationCursor upTo = NotificationCursor.parse(cursor);
+            marked = notificationRepository.markReadUpTo(userId, upTo.timestamp(), upTo.id());
+        }
+        if (marked > 0) {
+            userStatsService.unreadNotificationsChanged(userId, -marked);
+        }
+        return marked;
+    }
+
+    public Notification create(Notification notification) {
+        // Inbox paging and mark-read both walk (timestamp, id), so every row needs a timestamp
+        if (notification.getTimestamp() == null) {
+            notification.setTimestamp(Instant.now());
+        }
+        Notification saved = notificationRepository.save(notification);
+        Long userId = userId(saved);
+        if (userId != null && !saved.isRead()) {
+            userStatsService.unreadNotificationsChanged(userId, 1);
+        }
+        return saved;
+    }
+
+    public Optional<Notification> update(Long id, Notification details) {
+        Optional<Notification> notificationOpt = notificationRepository.findByIdForUpdate(id);
+        if (notificationOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        Notification notification = notificationOpt.get();
+        boolean wasRead = notification.isRead();
+        notification.setType(details.getType());
+        notification.setMessage(details.getMessage());
+        if (details.getTimestamp() != null) {
+            notification.setTimestamp(details.getTimestamp());
+        }
+        notification.setRead(details.isRead());
+        Notification saved = notificationRepository.save(notification);
+
+        Long userId = userId(saved);
+        if (userId != null && wasRead != saved.isRead()) {
+            userStatsService.unreadNotificationsChanged(userId, saved.isRead() ? -1 : 1);
+        }
+        return Optional.of(saved);
+    }
+
+    public boolean delete(Long id) {
+        Optional<Notification> notificationOpt = notificationRepository.findByIdForUpdate(id);
+        if (notificationOpt.isEmpty()) {
+            return false;
+        }
+        Notification notification = notificationOpt.get();
+        notificationRepository.delete(notification);
+        Long userId = userId(notification);
+        if (userId != null && !notification.isRead()) {
+            userStatsService.unreadNotificationsChanged(userId, -1);
+        }
+        return true;
+    }
+
+    private Long userId(Notification notification) {
+        return notification.getUser() != null ? notification.getUser().getId() : null;
+    }
+}
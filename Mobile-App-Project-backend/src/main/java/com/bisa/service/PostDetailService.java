@@ -1,9 +1,10 @@
 package com.bisa.service;
 
+import com.bisa.dto.FactCheckStatus;
 import com.bisa.dto.PostDetailResponse;
+import com.bisa.dto.UserCard;
 import com.bisa.model.Post;
 import com.bisa.model.Comment;
-import com.bisa.model.FactCheck;
 import com.bisa.model.Share;
 import com.bisa.model.User;
 import com.bisa.repository.PostRepository;
@@ -13,8 +14,11 @@ import com.bisa.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,15 +29,22 @@ public class PostDetailService {
     private final ShareRepository shareRepository;
     private final UserRepository userRepository;
     private final FactCheckService factCheckService;
+    private final CommentCountResolver commentCountResolver;
+    private final FollowGraphService followGraphService;
+    private final UserCardCache userCardCache;
 
     public PostDetailService(PostRepository postRepository, CommentRepository commentRepository, 
                            ShareRepository shareRepository, UserRepository userRepository, 
-                           FactCheckService factCheckService) {
+                           FactCheckService factCheckService, CommentCountResolver commentCountResolver,
+                           FollowGraphService followGraphService, UserCardCache userCardCache) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.shareRepository = shareRepository;
         this.userRepository = userRepository;
         this.factCheckService = factCheckService;
+        this.commentCountResolver = commentCountResolver;
+        this.followGraphService = followGraphService;
+        this.userCardCache = userCardCache;
     }
 
     public Optional<PostDetailResponse> getPostDetail(Long postId, Long currentUserId) {
@@ -55,31 +66,32 @@ public class PostDetailService {
         response.setShares(post.getShares());
         response.setCreatedAt(post.getCreatedAt());
 
-        // User information
-        User postUser = post.getUser();
-        PostDetailResponse.UserInfo userInfo = new PostDetailResponse.UserInfo(
-            postUser.getId(),
-            postUser.getName(),
-            postUser.getAvatar(),
-            postUser.getCredentials(),
-            isUserFollowing(currentUserId, postUser.getId())
-        );
-        response.setUser(userInfo);
-
         // Comments
         List<Comment> comments = commentRepository.findByPostOrderByCreatedAtDesc(post);
         response.setCommentsCount(comments.size());
-        
-        List<PostDetailResponse.CommentInfo> commentInfos = comments.stream()
+        List<Comment> shownComments = comments.stream()
             .limit(10) // Limit to first 10 comments for performance
-            .map(this::convertToCommentInfo)
+            .collect(Collectors.toList());
+
+        // Author and commenter cards in one cache lookup; the proxies only supply IDs
+        Long authorId = post.getUser().getId();
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(authorId);
+        shownComments.forEach(comment -> userIds.add(comment.getUser().getId()));
+        Map<Long, UserCard> cards = userCardCache.getAll(userIds);
+
+        // User information
+        response.setUser(toUserInfo(post.getUser(), cards, isUserFollowing(currentUserId, authorId)));
+
+        List<PostDetailResponse.CommentInfo> commentInfos = shownComments.stream()
+            .map(comment -> convertToCommentInfo(comment, cards))
             .collect(Collectors.toList());
         response.setComments(commentInfos);
 
         // Fact check information
-        Optional<FactCheck> latestFactCheck = factCheckService.getLatestFactCheck(post);
+        Optional<FactCheckStatus> latestFactCheck = factCheckService.getLatestStatus(post.getId());
         if (latestFactCheck.isPresent()) {
-            FactCheck factCheck = latestFactCheck.get();
+            FactCheckStatus factCheck = latestFactCheck.get();
             PostDetailResponse.FactCheckInfo factCheckInfo = new PostDetailResponse.FactCheckInfo(
                 factCheck.getId(),
                 factCheck.getValidityStatus(),
@@ -108,15 +120,9 @@ public class PostDetailService {
         return Optional.of(response);
     }
 
-    private PostDetailResponse.CommentInfo convertToCommentInfo(Comment comment) {
-        User commentUser = comment.getUser();
-        PostDetailResponse.UserInfo userInfo = new PostDetailResponse.UserInfo(
-            commentUser.getId(),
-            commentUser.getName(),
-            commentUser.getAvatar(),
-            commentUser.getCredentials(),
-            false // Following status not needed for comments
-        );
+    private PostDetailResponse.CommentInfo convertToCommentInfo(Comment comment, Map<Long, UserCard> cards) {
+        // Following status not needed for comments
+        PostDetailResponse.UserInfo userInfo = toUserInfo(comment.getUser(), cards, false);
 
         return new PostDetailResponse.CommentInfo(
             comment.getId(),
@@ -127,6 +133,17 @@ public class PostDetailService {
         );
     }
 
+    // Falls back to the entity only when the card is missing, e.g. a user deleted mid-request
+    private PostDetailResponse.UserInfo toUserInfo(User user, Map<Long, UserCard> cards, boolean following) {
+        UserCard card = cards.get(user.getId());
+        if (card == null) {
+            return new PostDetailResponse.UserInfo(user.getId(), user.getName(), user.getAvatar(),
+                    user.getCredentials(), following);
+        }
+        return new PostDetailResponse.UserInfo(card.getId(), card.getName(), card.getAvatar(),
+                card.getCredentials(), following);
+    }
+
     private PostDetailResponse.ShareStats buildShareStats(List<Share> shares) {
         // Group by share type
         var shareTypeCounts = shares.stream()
@@ -156,7 +173,7 @@ public class PostDetailService {
     private PostDetailResponse.PostStats buildPostStats(Post post) {
         // This would typically come from a view tracking system
         // For now, we'll use basic calculations
-        int viewCount = post.getUpvotes() + post.getShares() + commentRepository.countByPost(post);
+        int viewCount = post.getUpvotes() + post.getShares() + commentCountResolver.resolve(post.getId());
         int uniqueViewers = viewCount; // Simplified for now
         double engagementRate = calculateEngagementRate(post);
         
@@ -169,18 +186,13 @@ public class PostDetailService {
     }
 
     private double calculateEngagementRate(Post post) {
-        int totalInteractions = post.getUpvotes() + post.getShares() + commentRepository.countByPost(post);
+        int totalInteractions = post.getUpvotes() + post.getShares() + commentCountResolver.resolve(post.getId());
         // Simplified engagement rate calculation
         return totalInteractions > 0 ? (double) totalInteractions / 100 : 0.0;
     }
 
     private boolean isUserFollowing(Long followerId, Long followingId) {
-        if (followerId == null || followingId == null) {
-            return false;
-        }
-        // This would typically check a follow relationship table
-        // For now, return false as placeholder
-        return false;
+        return followGraphService.isFollowing(followerId, followingId);
     }
 
     private boolean isPostUpvotedByUser(Long postId, Long userId) {
@@ -214,12 +226,15 @@ public class PostDetailService {
         }
 
         // This would typically use pagination
-        List<Comment> comments = commentRepository.findByPostOrderByCreatedAtDesc(postOpt.get());
-        
-        return comments.stream()
+        List<Comment> comments = commentRepository.findByPostOrderByCreatedAtDesc(postOpt.get()).stream()
             .skip(page * size)
             .limit(size)
-            .map(this::convertToCommentInfo)
+            .collect(Collectors.toList());
+        Map<Long, UserCard> cards = userCardCache.getAll(
+            comments.stream().map(comment -> comment.getUser().getId()).collect(Collectors.toList()));
+        
+        return comments.stream()
+            .map(comment -> convertToCommentInfo(comment, cards))
             .collect(Collectors.toList());
     }
 } 
\ No newline at end of file
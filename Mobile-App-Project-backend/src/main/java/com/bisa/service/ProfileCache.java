@@ -0,0 +1,49 @@
+package com.bisa.service;
+
+import com.bisa.dto.UserProfileResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Viewer-independent part of each user profile (details, counts, recent posts), dropped on writes
+@Component
+public class ProfileCache {
+    private final Cache<Long, UserProfileResponse> cache;
+
+    public ProfileCache(@Value("${profiles.cache.size:20000}") long size,
+                        @Value("${profiles.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    // Missing users are not cached; an invalidate racing the load discards the loaded value
+    public Optional<UserProfileResponse> get(Long userId, Function<Long, UserProfileResponse> loader) {
+        return Optional.ofNullable(cache.get(userId, loader));
+    }
+
+    // Drops the entry now and again once the surrounding transaction commits, so a concurrent
+    // read cannot re-cache the pre-commit state
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
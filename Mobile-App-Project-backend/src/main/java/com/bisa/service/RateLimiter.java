@@ -0,0 +1,88 @@
+package com.bisa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per route group and caller. Each bucket is a single "theoretical arrival time"
+// (GCRA) in an AtomicLong, advanced with CAS, so no locks are taken. Idle buckets are evicted;
+// an evicted bucket would have refilled anyway.
+@Component
+public class RateLimiter {
+    public static final String GROUP_FACT_CHECK = "fact_check";
+    public static final String GROUP_VOTE = "vote";
+    public static final String GROUP_WRITE = "write";
+    public static final String GROUP_READ = "read";
+
+    private final Map<String, Limit> limits = new HashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(MeterRegistry registry,
+                       @Value("${ratelimit.fact-check.per-minute:6}") int factCheckPerMinute,
+                       @Value("${ratelimit.fact-check.burst:3}") int factCheckBurst,
+                       @Value("${ratelimit.vote.per-minute:60}") int votePerMinute,
+                       @Value("${ratelimit.vote.burst:20}") int voteBurst,
+                       @Value("${ratelimit.write.per-minute:120}") int writePerMinute,
+                       @Value("${ratelimit.write.burst:30}") int writeBurst,
+                       @Value("${ratelimit.read.per-minute:600}") int readPerMinute,
+                       @Value("${ratelimit.read.burst:100}") int readBurst,
+                       @Value("${ratelimit.max-buckets:200000}") long maxBuckets,
+                       @Value("${ratelimit.idle-minutes:10}") long idleMinutes) {
+        addLimit(registry, GROUP_FACT_CHECK, factCheckPerMinute, factCheckBurst);
+        addLimit(registry, GROUP_VOTE, votePerMinute, voteBurst);
+        addLimit(registry, GROUP_WRITE, writePerMinute, writeBurst);
+        addLimit(registry, GROUP_READ, readPerMinute, readBurst);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    // 0 when the request may proceed, otherwise the nanoseconds until the next token is available
+    public long acquire(String group, String caller) {
+        Limit limit = limits.get(group);
+        if (limit == null) {
+            return 0;
+        }
+        AtomicLong bucket = buckets.get(group + ':' + caller, key -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            long next = (arrival - now < 0 ? now : arrival) + limit.intervalNanos;
+            long excess = next - now - limit.toleranceNanos;
+            if (excess > 0) {
+                rejections.get(group).increment();
+                return excess;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void addLimit(MeterRegistry registry, String group, int perMinute, int burst) {
+        // A non-positive rate leaves the group unlimited
+        if (perMinute <= 0) {
+            return;
+        }
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        limits.put(group, new Limit(intervalNanos, intervalNanos * Math.max(1, burst)));
+        rejections.put(group, Counter.builder("ratelimit.rejected")
+                .description("Requests rejected with 429 by the per-user rate limiter")
+                .tag("group", group)
+                .register(registry));
+    }
+
+    private record Limit(long intervalNanos, long toleranceNanos) {
+    }
+}
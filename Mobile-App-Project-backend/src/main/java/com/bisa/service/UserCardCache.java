@@ -0,0 +1,71 @@
+package com.bisa.service;
+
+import com.bisa.dto.UserCard;
+import com.bisa.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Process-wide id -> UserCard cache; misses for a whole batch are loaded with one IN query
+@Component
+public class UserCardCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, UserCard> cache;
+
+    public UserCardCache(UserRepository userRepository,
+                         @Value("${users.card-cache.size:100000}") long size,
+                         @Value("${users.card-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public Optional<UserCard> get(Long userId) {
+        return userId == null ? Optional.empty() : Optional.ofNullable(getAll(List.of(userId)).get(userId));
+    }
+
+    // Unknown IDs are simply absent from the result and are not cached
+    public Map<Long, UserCard> getAll(Collection<Long> userIds) {
+        Set<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return cache.getAll(ids, missing -> userRepository.findCardsByIds(new ArrayList<Long>(missing)).stream()
+                .collect(Collectors.toMap(UserCard::getId, Function.identity())));
+    }
+
+    // Cards in request order, without duplicates or unknown users
+    public List<UserCard> getCards(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        Map<Long, UserCard> cards = getAll(ids);
+        List<UserCard> result = new ArrayList<>(cards.size());
+        for (Long id : ids) {
+            UserCard card = cards.get(id);
+            if (card != null) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+}
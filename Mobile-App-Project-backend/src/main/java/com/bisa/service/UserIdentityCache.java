@@ -0,0 +1,86 @@
+package com.bisa.service;
+
+import com.bisa.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sign-in lookups by Firebase UID or email, so repeat app launches skip the database
+@Component
+public class UserIdentityCache {
+    private static final String UID_PREFIX = "uid:";
+    private static final String EMAIL_PREFIX = "email:";
+
+    private final Cache<String, User> cache;
+    // Keys cached per user ID, so invalidation does not scan the cache
+    private final Map<Long, Set<String>> keysByUserId = new ConcurrentHashMap<>();
+
+    public UserIdentityCache(@Value("${users.identity-cache.size:50000}") long size,
+                             @Value("${users.identity-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .evictionListener((String key, User user, RemovalCause cause) -> {
+                    if (user != null) {
+                        forgetKey(user.getId(), key);
+                    }
+                })
+                .build();
+    }
+
+    // A UID hit only counts when the cached account still has the verified email
+    public User get(String uid, String email) {
+        User user = uid != null ? cache.getIfPresent(UID_PREFIX + uid) : null;
+        if (user != null && email != null && !email.equalsIgnoreCase(user.getEmail())) {
+            cache.invalidate(UID_PREFIX + uid);
+            forgetKey(user.getId(), UID_PREFIX + uid);
+            user = null;
+        }
+        if (user == null && email != null) {
+            user = cache.getIfPresent(emailKey(email));
+        }
+        return user;
+    }
+
+    // The caller must have taken the email from the verified token whenever a UID is given
+    public void put(String uid, User user) {
+        if (uid != null) {
+            putKey(UID_PREFIX + uid, user);
+        }
+        if (user.getEmail() != null) {
+            putKey(emailKey(user.getEmail()), user);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        Set<String> keys = keysByUserId.remove(userId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    // Email addresses compare case-insensitively, matching the UID check in get
+    private static String emailKey(String email) {
+        return EMAIL_PREFIX + email.toLowerCase(Locale.ROOT);
+    }
+
+    private void putKey(String key, User user) {
+        keysByUserId.computeIfAbsent(user.getId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        cache.put(key, user);
+    }
+
+    private void forgetKey(Long userId, String key) {
+        keysByUserId.computeIfPresent(userId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
@@ -0,0 +1,322 @@
+package com.bisa.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+// In-memory trigram index over user names. Each trigram maps to an immutable Posting of sorted
+// user IDs, replaced copy-on-write. Names are indexed with a leading marker so two-character queries
+// can still match the start of the name or of any word in it.
+public final class UserNameIndex {
+    private static final char START = '\u0001';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Bounds the work per match group for very common query fragments. A group that reaches the cap
+    // before filling the page is cut short, and the result is flagged as truncated.
+    static final int MAX_CANDIDATES = 20_000;
+    // Recent additions and removals kept beside a posting's base array before being folded into it
+    static final int DELTA_LIMIT = 256;
+    private static final long[] NONE = new long[0];
+
+    private final Map<Long, String> names;
+    private final Map<Long, Posting> postings;
+
+    private UserNameIndex(Map<Long, String> names, Map<Long, Posting> postings) {
+        this.names = names;
+        this.postings = postings;
+    }
+
+    public static UserNameIndex empty() {
+        return new UserNameIndex(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    public void put(long userId, String name) {
+        String normalized = normalize(name);
+        String previous = normalized.isEmpty() ? names.remove(userId) : names.put(userId, normalized);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        Set<Long> oldGrams = previous != null ? trigrams(previous) : Set.of();
+        Set<Long> newGrams = trigrams(normalized);
+        for (Long gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                postings.computeIfPresent(gram, (key, posting) -> posting.without(userId));
+            }
+        }
+        for (Long gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.compute(gram, (key, posting) -> posting == null ? Posting.of(userId) : posting.with(userId));
+            }
+        }
+    }
+
+    public void remove(long userId) {
+        String previous = names.remove(userId);
+        if (previous != null) {
+            for (Long gram : trigrams(previous)) {
+                postings.computeIfPresent(gram, (key, posting) -> posting.without(userId));
+            }
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    // Name-prefix matches first, then word-prefix, then substring (three or more characters);
+    // ascending user ID within each group. Each group stops as soon as the page is full.
+    public Matches search(String query, int limit) {
+        String q = normalize(query);
+        if (q.length() < 2 || limit <= 0) {
+            return new Matches(List.of(), false);
+        }
+
+        List<Long> results = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        boolean truncated = collect(trigramsOf(START + q), name -> name.startsWith(q), results, seen, limit);
+        String wordStart = " " + q;
+        truncated |= collect(trigramsOf(wordStart), name -> name.contains(wordStart), results, seen, limit);
+        if (q.length() >= 3) {
+            truncated |= collect(trigramsOf(q), name -> name.contains(q), results, seen, limit);
+        }
+        return new Matches(results, truncated && results.size() < limit);
+    }
+
+    // Walks the shortest posting list, probing the others, and verifies each candidate's name.
+    // Returns true if it gave up at MAX_CANDIDATES, i.e. more matches may exist.
+    private boolean collect(Set<Long> grams, Predicate<String> matches, List<Long> results, Set<Long> seen, int limit) {
+        if (results.size() >= limit) {
+            return false;
+        }
+        List<Posting> lists = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return false;
+            }
+            lists.add(posting);
+        }
+        if (lists.isEmpty()) {
+            return false;
+        }
+        lists.sort(Comparator.comparingInt(Posting::size));
+
+        // Ascending walk over the shortest posting: its base (minus removals) merged with its additions
+        Posting shortest = lists.get(0);
+        long[] base = shortest.base;
+        long[] added = shortest.added;
+        int b = 0;
+        int a = 0;
+        int examined = 0;
+        outer:
+        while (b < base.length || a < added.length) {
+            long userId;
+            if (a == added.length || (b < base.length && base[b] < added[a])) {
+                userId = base[b++];
+                if (Arrays.binarySearch(shortest.removed, userId) >= 0) {
+                    continue;
+                }
+            } else {
+                userId = added[a++];
+            }
+            if (++examined > MAX_CANDIDATES) {
+                return true;
+            }
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(userId)) {
+                    continue outer;
+                }
+            }
+            String name = names.get(userId);
+            if (name != null && matches.test(name) && seen.add(userId)) {
+                results.add(userId);
+                if (results.size() >= limit) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_WORD.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Set<Long> trigrams(String normalized) {
+        return trigramsOf(START + normalized);
+    }
+
+    static Set<Long> trigramsOf(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(gram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+        }
+        return grams;
+    }
+
+    static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static long[] insertAt(long[] ids, int position, long userId) {
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        updated[position] = userId;
+        System.arraycopy(ids, position, updated, position + 1, ids.length - position);
+        return updated;
+    }
+
+    private static long[] removeAt(long[] ids, int index) {
+        if (ids.length == 1) {
+            return NONE;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        return updated;
+    }
+
+    // Sorted user IDs for one trigram: a base array plus small sorted arrays of later additions (never in
+    // base) and removals (always in base). A write copies only the deltas; once they reach DELTA_LIMIT
+    // they are folded into a new base, so common trigrams pay the O(n) copy once per DELTA_LIMIT writes.
+    static final class Posting {
+        final long[] base;
+        final long[] added;
+        final long[] removed;
+
+        private Posting(long[] base, long[] added, long[] removed) {
+            this.base = base;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        static Posting of(long userId) {
+            return new Posting(new long[]{userId}, NONE, NONE);
+        }
+
+        int size() {
+            return base.length + added.length - removed.length;
+        }
+
+        boolean contains(long userId) {
+            if (Arrays.binarySearch(added, userId) >= 0) {
+                return true;
+            }
+            return Arrays.binarySearch(base, userId) >= 0 && Arrays.binarySearch(removed, userId) < 0;
+        }
+
+        Posting with(long userId) {
+            int index = Arrays.binarySearch(removed, userId);
+            if (index >= 0) {
+                return new Posting(base, added, removeAt(removed, index));
+            }
+            if (Arrays.binarySearch(base, userId) >= 0) {
+                return this;
+            }
+            index = Arrays.binarySearch(added, userId);
+            if (index >= 0) {
+                return this;
+            }
+            return new Posting(base, insertAt(added, -index - 1, userId), removed).compactIfFull();
+        }
+
+        // Null once the last user is removed, which drops the trigram from the index
+        Posting without(long userId) {
+            Posting updated;
+            int index = Arrays.binarySearch(added, userId);
+            if (index >= 0) {
+                updated = new Posting(base, removeAt(added, index), removed);
+            } else if (Arrays.binarySearch(base, userId) < 0) {
+                return this;
+            } else {
+                index = Arrays.binarySearch(removed, userId);
+                if (index >= 0) {
+                    return this;
+                }
+                updated = new Posting(base, added, insertAt(removed, -index - 1, userId)).compactIfFull();
+            }
+            return updated.size() == 0 ? null : updated;
+        }
+
+        private Posting compactIfFull() {
+            if (added.length + removed.length < DELTA_LIMIT) {
+                return this;
+            }
+            long[] merged = new long[size()];
+            int b = 0;
+            int a = 0;
+            int r = 0;
+            int out = 0;
+            while (b < base.length || a < added.length) {
+                if (a == added.length || (b < base.length && base[b] < added[a])) {
+                    long userId = base[b++];
+                    if (r < removed.length && removed[r] == userId) {
+                        r++;
+                    } else {
+                        merged[out++] = userId;
+                    }
+                } else {
+                    merged[out++] = added[a++];
+                }
+            }
+            return new Posting(merged, NONE, NONE);
+        }
+    }
+
+    // truncated: a match group hit MAX_CANDIDATES before the page filled, so the list may be incomplete
+    public record Matches(List<Long> userIds, boolean truncated) {
+    }
+
+    // Bulk loader for startup; posting lists are sorted once at the end
+    public static final class Builder {
+        private final Map<Long, String> names = new HashMap<>();
+        private final Map<Long, long[]> lists = new HashMap<>();
+        private final Map<Long, Integer> sizes = new HashMap<>();
+
+        public Builder add(long userId, String name) {
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) {
+                return this;
+            }
+            names.put(userId, normalized);
+            for (Long gram : trigrams(normalized)) {
+                long[] ids = lists.get(gram);
+                int size = sizes.getOrDefault(gram, 0);
+                if (ids == null) {
+                    ids = new long[4];
+                } else if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size] = userId;
+                lists.put(gram, ids);
+                sizes.put(gram, size + 1);
+            }
+            return this;
+        }
+
+        public UserNameIndex build() {
+            Map<Long, Posting> postings = new ConcurrentHashMap<>(Math.max(16, lists.size() * 4 / 3));
+            for (Map.Entry<Long, long[]> entry : lists.entrySet()) {
+                long[] ids = Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey()));
+                Arrays.sort(ids);
+                postings.put(entry.getKey(), new Posting(ids, NONE, NONE));
+            }
+            lists.clear();
+            return new UserNameIndex(new ConcurrentHashMap<>(names), postings);
+        }
+    }
+}
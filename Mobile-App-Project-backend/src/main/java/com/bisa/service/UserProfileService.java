@@ -1,42 +1,78 @@
 package com.bisa.service;
 
+import com.bisa.dto.FollowUserView;
+import com.bisa.dto.PostSummaryView;
 import com.bisa.dto.UserProfileResponse;
 import com.bisa.model.User;
 import com.bisa.model.Post;
 import com.bisa.model.Follow;
+import com.bisa.model.UserStats;
 import com.bisa.repository.UserRepository;
 import com.bisa.repository.PostRepository;
 import com.bisa.repository.FollowRepository;
 import com.bisa.repository.CommentRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserProfileService {
+    private static final int PROFILE_RECENT_POSTS = 5;
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final FollowRepository followRepository;
     private final CommentRepository commentRepository;
+    private final UserStatsService userStatsService;
+    private final CommentCountResolver commentCountResolver;
+    private final FollowGraphService followGraphService;
+    private final ProfileCache profileCache;
 
     public UserProfileService(UserRepository userRepository, PostRepository postRepository,
-                            FollowRepository followRepository, CommentRepository commentRepository) {
+                            FollowRepository followRepository, CommentRepository commentRepository,
+                            UserStatsService userStatsService, CommentCountResolver commentCountResolver,
+                            FollowGraphService followGraphService, ProfileCache profileCache) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.followRepository = followRepository;
         this.commentRepository = commentRepository;
+        this.userStatsService = userStatsService;
+        this.commentCountResolver = commentCountResolver;
+        this.followGraphService = followGraphService;
+        this.profileCache = profileCache;
     }
 
+    // Public part from the profile cache; only the viewer flags are computed per request, from the follow graph.
+    // SUPPORTS keeps cache hits from opening a transaction and borrowing a connection.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<UserProfileResponse> getUserProfile(Long userId, Long currentUserId) {
+        return profileCache.get(userId, this::buildPublicProfile).map(cached -> {
+            UserProfileResponse response = new UserProfileResponse(cached);
+
+            // Check if current user is viewing their own profile
+            boolean isCurrentUser = currentUserId != null && currentUserId.equals(userId);
+            response.setCurrentUser(isCurrentUser);
+
+            // Check if current user is following this user
+            response.setFollowing(!isCurrentUser && followGraphService.isFollowing(currentUserId, userId));
+            return response;
+        });
+    }
+
+    // Viewer-independent profile, or null for an unknown user
+    private UserProfileResponse buildPublicProfile(Long userId) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
-            return Optional.empty();
+            return null;
         }
 
         User user = userOpt.get();
@@ -52,37 +88,20 @@ public class UserProfileService {
         response.setWebsite(user.getWebsite());
         response.setJoinDate(user.getCreatedAt());
 
-        // Check if current user is viewing their own profile
-        boolean isCurrentUser = currentUserId != null && currentUserId.equals(userId);
-        response.setCurrentUser(isCurrentUser);
-
-        // Follow statistics
-        int followersCount = followRepository.countByFollowedUser(user);
-        int followingCount = followRepository.countByFollower(user);
-        response.setFollowersCount(followersCount);
-        response.setFollowingCount(followingCount);
-
-        // Posts count
-        int postsCount = postRepository.countByUser(user);
-        response.setPostsCount(postsCount);
-
-        // Check if current user is following this user
-        boolean isFollowing = false;
-        if (currentUserId != null && !isCurrentUser) {
-            Optional<Follow> followOpt = followRepository.findByFollowerIdAndFollowedUserId(currentUserId, userId);
-            isFollowing = followOpt.isPresent();
-        }
-        response.setFollowing(isFollowing);
-
-        // Get user's posts (limited for profile view)
-        List<Post> userPosts = postRepository.findByUserOrderByCreatedAtDesc(user);
-        List<UserProfileResponse.UserPostSummary> postSummaries = userPosts.stream()
-                .limit(5) // Limit to 5 most recent posts for profile
+        // Follow, post and comment statistics from the maintained user_stats row
+        UserStats stats = userStatsService.getStats(userId);
+        response.setFollowersCount(stats.getFollowersCount());
+        response.setFollowingCount(stats.getFollowingCount());
+        response.setPostsCount(stats.getPostsCount());
+        response.setCommentsCount(stats.getCommentsCount());
+        response.setUpvotesReceived(stats.getUpvotesReceived());
+
+        // Most recent posts with comment counts, limited in the query for the profile view
+        response.setPosts(postRepository
+                .findRecentSummariesByUserId(userId, PageRequest.of(0, PROFILE_RECENT_POSTS)).stream()
                 .map(this::convertToPostSummary)
-                .collect(Collectors.toList());
-        response.setPosts(postSummaries);
-
-        return Optional.of(response);
+                .toList());
+        return response;
     }
 
     public Page<UserProfileResponse.UserPostSummary> getUserPosts(Long userId, Pageable pageable) {
@@ -94,105 +113,111 @@ public class UserProfileService {
         User user = userOpt.get();
         Page<Post> postsPage = postRepository.findByUserOrderByCreatedAtDesc(user, pageable);
         
-        return postsPage.map(this::convertToPostSummary);
+        // One comment COUNT query for the whole page
+        Map<Long, Integer> commentCounts = commentCountResolver.resolve(
+                postsPage.map(Post::getId).getContent());
+        return postsPage.map(post -> convertToPostSummary(post, commentCounts.getOrDefault(post.getId(), 0)));
     }
 
     public boolean followUser(Long followerId, Long followedUserId) {
         // Check if already following
-        Optional<Follow> existingFollow = followRepository.findByFollowerIdAndFollowedUserId(followerId, followedUserId);
-        if (existingFollow.isPresent()) {
+        if (followGraphService.isFollowing(followerId, followedUserId)) {
             return false; // Already following
         }
 
-        // Check if both users exist
-        Optional<User> followerOpt = userRepository.findById(followerId);
-        Optional<User> followedUserOpt = userRepository.findById(followedUserId);
-        
-        if (followerOpt.isEmpty() || followedUserOpt.isEmpty()) {
-            return false;
+        // One idempotent insert that also checks both users exist; ON CONFLICT / MERGE absorbs concurrent double-taps
+        Follow follow = newFollow(followerId, followedUserId);
+        if (!followRepository.insertIfAbsent(followerId, followedUserId, follow.getType(), follow.getFollowedAt())) {
+            return false; // Already following, or one of the users does not exist
         }
 
-        // Create follow relationship
-        Follow follow = new Follow();
-        follow.setFollower(followerOpt.get());
-        follow.setFollowedUser(followedUserOpt.get());
-        follow.setFollowedAt(java.time.Instant.now());
-        
-        followRepository.save(follow);
+        userStatsService.followCreated(follow);
+        followGraphService.followCreated(follow);
         return true;
     }
 
     public boolean unfollowUser(Long followerId, Long followedUserId) {
-        Optional<Follow> followOpt = followRepository.findByFollowerIdAndFollowedUserId(followerId, followedUserId);
-        if (followOpt.isEmpty()) {
+        if (!followGraphService.isFollowing(followerId, followedUserId)) {
             return false; // Not following
         }
 
-        followRepository.delete(followOpt.get());
+        if (followRepository.deleteByFollowerIdAndFollowedUserId(followerId, followedUserId) == 0) {
+            return false; // Not following
+        }
+
+        Follow follow = newFollow(followerId, followedUserId);
+        userStatsService.followDeleted(follow);
+        followGraphService.followDeleted(follow);
         return true;
     }
 
-    public Page<UserProfileResponse> getFollowers(Long userId, Pageable pageable) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+    // Follow built on reference proxies, for write hooks that only need the user IDs
+    private Follow newFollow(Long followerId, Long followedUserId) {
+        Follow follow = new Follow();
+        follow.setFollower(userRepository.getReferenceById(followerId));
+        follow.setFollowedUser(userRepository.getReferenceById(followedUserId));
+        follow.setType("user");
+        return follow;
+    }
+
+    public Page<UserProfileResponse> getFollowers(Long userId, Long currentUserId, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
             return Page.empty(pageable);
         }
 
-        User user = userOpt.get();
-        Page<Follow> followsPage = followRepository.findByFollowedUserOrderByFollowedAtDesc(user, pageable);
-        
-        return followsPage.map(follow -> {
-            User follower = follow.getFollower();
-            return new UserProfileResponse(
-                follower.getId(),
-                follower.getName(),
-                follower.getAvatar(),
-                follower.getCredentials(),
-                follower.getBio(),
-                follower.getLocation(),
-                follower.getWebsite(),
-                follower.getCreatedAt(),
-                0, // We'll calculate these separately if needed
-                0,
-                0,
-                false, // We'll calculate this separately if needed
-                false
-            );
-        });
+        return toFollowPage(followRepository.findFollowerViews(userId, pageable), currentUserId);
     }
 
-    public Page<UserProfileResponse> getFollowing(Long userId, Pageable pageable) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+    public Page<UserProfileResponse> getFollowing(Long userId, Long currentUserId, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
             return Page.empty(pageable);
         }
 
-        User user = userOpt.get();
-        Page<Follow> followsPage = followRepository.findByFollowerOrderByFollowedAtDesc(user, pageable);
-        
-        return followsPage.map(follow -> {
-            User followedUser = follow.getFollowedUser();
-            return new UserProfileResponse(
-                followedUser.getId(),
-                followedUser.getName(),
-                followedUser.getAvatar(),
-                followedUser.getCredentials(),
-                followedUser.getBio(),
-                followedUser.getLocation(),
-                followedUser.getWebsite(),
-                followedUser.getCreatedAt(),
-                0, // We'll calculate these separately if needed
-                0,
-                0,
-                false, // We'll calculate this separately if needed
-                false
+        return toFollowPage(followRepository.findFollowingViews(userId, pageable), currentUserId);
+    }
+
+    // Counts come from one batch stats lookup and the viewer's follow status from the follow graph
+    private Page<UserProfileResponse> toFollowPage(Page<FollowUserView> users, Long currentUserId) {
+        List<Long> userIds = users.map(FollowUserView::getId).getContent();
+        Map<Long, UserStats> stats = userIds.isEmpty() ? Map.of() : userStatsService.getStats(userIds);
+        Set<Long> followedByViewer = followGraphService.followedAmong(currentUserId, userIds);
+
+        return users.map(user -> {
+            UserStats userStats = stats.get(user.getId());
+            UserProfileResponse response = new UserProfileResponse(
+                user.getId(),
+                user.getName(),
+                user.getAvatar(),
+                user.getCredentials(),
+                user.getBio(),
+                user.getLocation(),
+                user.getWebsite(),
+                user.getCreatedAt(),
+                userStats.getFollowersCount(),
+                userStats.getFollowingCount(),
+                userStats.getPostsCount(),
+                followedByViewer.contains(user.getId()),
+                user.getId().equals(currentUserId)
             );
+            response.setCommentsCount(userStats.getCommentsCount());
+            response.setUpvotesReceived(userStats.getUpvotesReceived());
+            return response;
         });
     }
 
-    private UserProfileResponse.UserPostSummary convertToPostSummary(Post post) {
-        int commentsCount = commentRepository.countByPost(post);
-        
+    private UserProfileResponse.UserPostSummary convertToPostSummary(PostSummaryView post) {
+        return new UserProfileResponse.UserPostSummary(
+            post.getId(),
+            post.getQuestion(),
+            post.getAnswer(),
+            post.getUpvotes(),
+            (int) post.getCommentsCount(),
+            post.getShares(),
+            post.getCreatedAt()
+        );
+    }
+
+    private UserProfileResponse.UserPostSummary convertToPostSummary(Post post, int commentsCount) {
         return new UserProfileResponse.UserPostSummary(
             post.getId(),
             post.getQuestion(),
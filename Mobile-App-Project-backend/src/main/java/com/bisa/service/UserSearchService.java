@@ -0,0 +1,111 @@
+package com.bisa.service;
+
+import com.bisa.dto.UserCard;
+import com.bisa.model.User;
+import com.bisa.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Name search over the in-memory UserNameIndex, loaded at startup and updated on user writes.
+// Falls back to a LIKE scan until the index has loaded.
+@Service
+public class UserSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchService.class);
+
+    private final UserRepository userRepository;
+    private final UserCardCache userCardCache;
+
+    @Value("${users.search.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    private volatile UserNameIndex index;
+    // Writes that arrive while the index is loading, replayed once it is published
+    private final List<Object[]> pendingWrites = new ArrayList<>();
+
+    public UserSearchService(UserRepository userRepository, UserCardCache userCardCache) {
+        this.userRepository = userRepository;
+        this.userCardCache = userCardCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startedAt = System.currentTimeMillis();
+        UserNameIndex.Builder builder = new UserNameIndex.Builder();
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = userRepository.findNamesAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : batch) {
+                afterId = ((Number) row[0]).longValue();
+                builder.add(afterId, (String) row[1]);
+            }
+        } while (batch.size() == loadBatchSize);
+
+        UserNameIndex loaded = builder.build();
+        synchronized (pendingWrites) {
+            for (Object[] write : pendingWrites) {
+                apply(loaded, write);
+            }
+            pendingWrites.clear();
+            index = loaded;
+        }
+        logger.info("Loaded user search index: {} users in {} ms", loaded.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    public Results search(String query, int limit) {
+        UserNameIndex current = index;
+        if (current == null) {
+            return new Results(userRepository.findCardsByNameContaining(UserNameIndex.normalize(query),
+                    PageRequest.of(0, limit)), false);
+        }
+
+        UserNameIndex.Matches matches = current.search(query, limit);
+        if (matches.userIds().isEmpty()) {
+            return new Results(List.of(), matches.truncated());
+        }
+        return new Results(userCardCache.getCards(matches.userIds()), matches.truncated());
+    }
+
+    // truncated: the query fragment is too common to scan fully; callers should ask for a longer query
+    public record Results(List<UserCard> users, boolean truncated) {
+    }
+
+    public void userSaved(User user) {
+        write(new Object[]{user.getId(), user.getName()});
+    }
+
+    public void userDeleted(Long userId) {
+        write(new Object[]{userId, null});
+    }
+
+    private void write(Object[] write) {
+        UserNameIndex current = index;
+        if (current == null) {
+            synchronized (pendingWrites) {
+                current = index;
+                if (current == null) {
+                    pendingWrites.add(write);
+                    return;
+                }
+            }
+        }
+        apply(current, write);
+    }
+
+    private void apply(UserNameIndex target, Object[] write) {
+        long userId = (Long) write[0];
+        if (write[1] == null) {
+            target.remove(userId);
+        } else {
+            target.put(userId, (String) write[1]);
+        }
+    }
+}
@@ -2,19 +2,62 @@ package com.bisa.service;
 
 import com.bisa.model.User;
 import com.bisa.repository.UserRepository;
+import com.bisa.repository.UserRepositoryCustom;
 import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    public UserService(UserRepository userRepository) {
+    private final UserIdentityCache userIdentityCache;
+    private final UserStatsService userStatsService;
+    private final UserSearchService userSearchService;
+    private final ProfileCache profileCache;
+    private final UserCardCache userCardCache;
+    public UserService(UserRepository userRepository, UserIdentityCache userIdentityCache,
+                       UserStatsService userStatsService, UserSearchService userSearchService,
+                       ProfileCache profileCache, UserCardCache userCardCache) {
         this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.userStatsService = userStatsService;
+        this.userSearchService = userSearchService;
+        this.profileCache = profileCache;
+        this.userCardCache = userCardCache;
     }
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userIdentityCache.invalidate(saved.getId());
+        userSearchService.userSaved(saved);
+        profileCache.invalidate(saved.getId());
+        userCardCache.invalidate(saved.getId());
+        return saved;
     }
-} 
\ No newline at end of file
+
+    // Firebase sign-in: a cache hit for returning users, otherwise one upsert statement.
+    // Callers pass a uid only together with the email verified in the same token.
+    public UserRepositoryCustom.Upserted signIn(String uid, String email, String name, String avatar) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email is required");
+        }
+        String normalizedEmail = email.trim();
+        User cached = userIdentityCache.get(uid, normalizedEmail);
+        if (cached != null) {
+            return new UserRepositoryCustom.Upserted(cached, false);
+        }
+
+        User user = new User();
+        user.setEmail(normalizedEmail);
+        user.setName(name);
+        user.setAvatar(avatar);
+        UserRepositoryCustom.Upserted result = userRepository.upsertByEmail(user);
+        if (result.created()) {
+            userStatsService.userCreated(result.user());
+            userSearchService.userSaved(result.user());
+        }
+        userIdentityCache.put(uid, result.user());
+        return result;
+    }
+} 
@@ -0,0 +1,45 @@
+package com.bisa.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+// Periodically recounts user_stats from the source tables to repair drift from failed or racing writes
+@Service
+public class UserStatsReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsReconciler.class);
+
+    private final UserStatsService userStatsService;
+
+    @Value("${userstats.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${userstats.reconcile.batch-size:500}")
+    private int batchSize;
+
+    public UserStatsReconciler(UserStatsService userStatsService) {
+        this.userStatsService = userStatsService;
+    }
+
+    @Scheduled(initialDelayString = "${userstats.reconcile.initial-delay-ms:30000}",
+               fixedDelayString = "${userstats.reconcile.interval-ms:3600000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        long afterId = 0;
+        int batches = 0;
+        Optional<Long> lastId;
+        // Each batch runs in its own transaction, so its user_stats rows stay locked only while they are recounted
+        while ((lastId = userStatsService.reconcileAfter(afterId, batchSize)).isPresent()) {
+            afterId = lastId.get();
+            batches++;
+        }
+        logger.info("Reconciled user stats in {} batches", batches);
+    }
+}
@@ -0,0 +1,301 @@
+package com.bisa.service;
+
+import com.bisa.model.Comment;
+import com.bisa.model.Follow;
+import com.bisa.model.Post;
+import com.bisa.model.User;
+import com.bisa.model.UserStats;
+import com.bisa.repository.CommentRepository;
+import com.bisa.repository.FollowRepository;
+import com.bisa.repository.NotificationRepository;
+import com.bisa.repository.PostRepository;
+import com.bisa.repository.UserRepository;
+import com.bisa.repository.UserStatsRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class UserStatsService {
+    private final UserStatsRepository userStatsRepository;
+    private final UserRepository userRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final NotificationRepository notificationRepository;
+    private final ProfileCache profileCache;
+
+    public UserStatsService(UserStatsRepository userStatsRepository, UserRepository userRepository,
+                            FollowRepository followRepository, PostRepository postRepository,
+                            CommentRepository commentRepository, NotificationRepository notificationRepository,
+                            ProfileCache profileCache) {
+        this.userStatsRepository = userStatsRepository;
+        this.userRepository = userRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.notificationRepository = notificationRepository;
+        this.profileCache = profileCache;
+    }
+
+    // Users from before user_stats existed get their row created on first read, not recounted on every read
+    public UserStats getStats(Long userId) {
+        Optional<UserStats> stats = userStatsRepository.findById(userId);
+        if (stats.isPresent()) {
+            return stats.get();
+        }
+        if (!userRepository.existsById(userId)) {
+            return new UserStats(userId);
+        }
+        return createRows(List.of(userId)).getOrDefault(userId, new UserStats(userId));
+    }
+
+    // Stats for a page of users: one IN query for stored rows; users without one get it created once
+    public Map<Long, UserStats> getStats(Collection<Long> userIds) {
+        Map<Long, UserStats> stats = userStatsRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserStats::getUserId, Function.identity()));
+        List<Long> missing = userIds.stream()
+                .filter(userId -> !stats.containsKey(userId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            stats.putAll(createRows(missing));
+        }
+        return stats;
+    }
+
+    public void userCreated(User user) {
+        if (user.getId() != null) {
+            userStatsRepository.insertIfAbsent(new UserStats(user.getId()));
+        }
+    }
+
+    public void userDeleted(Long userId) {
+        userStatsRepository.findById(userId).ifPresent(userStatsRepository::delete);
+        profileCache.invalidate(userId);
+    }
+
+    public void followCreated(Follow follow) {
+        adjustFollow(follow, 1);
+    }
+
+    public void followDeleted(Follow follow) {
+        adjustFollow(follow, -1);
+    }
+
+    // Only the followed side changes; call after the follow has been saved with its new target
+    public void followRetargeted(Follow follow, User previousFollowedUser) {
+        Long previousId = userId(previousFollowedUser);
+        Long followedUserId = userId(follow.getFollowedUser());
+        if (previousId == null || followedUserId == null || previousId.equals(followedUserId)) {
+            return;
+        }
+        increment(previousId, () -> userStatsRepository.addFollowers(previousId, -1));
+        increment(followedUserId, () -> userStatsRepository.addFollowers(followedUserId, 1));
+        profileCache.invalidate(previousId);
+        profileCache.invalidate(followedUserId);
+    }
+
+    public void postCreated(Post post) {
+        Long authorId = userId(post.getUser());
+        if (authorId != null) {
+            increment(authorId, () -> userStatsRepository.addPosts(authorId, 1, post.getUpvotes()));
+            profileCache.invalidate(authorId);
+        }
+    }
+
+    public void postDeleted(Post post) {
+        Long authorId = userId(post.getUser());
+        if (authorId != null) {
+            increment(authorId, () -> userStatsRepository.addPosts(authorId, -1, -post.getUpvotes()));
+            profileCache.invalidate(authorId);
+        }
+    }
+
+    public void upvotesChanged(Post post, int delta) {
+        Long authorId = userId(post.getUser());
+        if (authorId != null && delta != 0) {
+            increment(authorId, () -> userStatsRepository.addUpvotesReceived(authorId, delta));
+            profileCache.invalidate(authorId);
+        }
+    }
+
+    // Edits and shares change no counters but do show in the author's recent post summaries
+    public void postUpdated(Post post) {
+        profileCache.invalidate(userId(post.getUser()));
+    }
+
+    public void commentCreated(Comment comment) {
+        Long authorId = userId(comment.getUser());
+        if (authorId != null) {
+            increment(authorId, () -> userStatsRepository.addComments(authorId, 1));
+        }
+        commentChanged(comment, authorId);
+    }
+
+    public void commentDeleted(Comment comment) {
+        Long authorId = userId(comment.getUser());
+        if (authorId != null) {
+            increment(authorId, () -> userStatsRepository.addComments(authorId, -1));
+        }
+        commentChanged(comment, authorId);
+    }
+
+    public void unreadNotificationsChanged(Long userId, int delta) {
+        if (userId != null && delta != 0) {
+            increment(userId, () -> userStatsRepository.addUnreadNotifications(userId, delta));
+        }
+    }
+
+    // The commenter's count changes, and so does the comment count on the post owner's recent posts
+    private void commentChanged(Comment comment, Long authorId) {
+        profileCache.invalidate(authorId);
+        Post post = comment.getPost();
+        if (post == null) {
+            return;
+        }
+        if (post.getUser() == null && post.getId() != null) {
+            // Comments posted with only a post ID reference
+            post = postRepository.findById(post.getId()).orElse(post);
+        }
+        profileCache.invalidate(userId(post.getUser()));
+    }
+
+    // Recounts one keyset batch of users and fixes rows that drifted; returns the last user ID seen.
+    // The rows are created and locked before counting, so a concurrent increment either committed
+    // together with its source-table write before the lock (and is counted) or waits and applies on top.
+    public Optional<Long> reconcileAfter(Long afterId, int batchSize) {
+        List<Long> userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+        if (userIds.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<Long, UserStats> stored = lockRows(userIds);
+        if (stored.size() < userIds.size()) {
+            for (Long userId : userIds) {
+                if (!stored.containsKey(userId)) {
+                    userStatsRepository.insertIfAbsent(new UserStats(userId));
+                }
+            }
+            stored = lockRows(userIds);
+        }
+
+        Map<Long, UserStats> counted = countStats(userIds);
+        Instant now = Instant.now();
+        for (Long userId : userIds) {
+            UserStats actual = counted.getOrDefault(userId, new UserStats(userId));
+            UserStats row = stored.get(userId);
+            if (row != null && !sameCounts(row, actual)) {
+                row.setFollowersCount(actual.getFollowersCount());
+                row.setFollowingCount(actual.getFollowingCount());
+                row.setPostsCount(actual.getPostsCount());
+                row.setCommentsCount(actual.getCommentsCount());
+                row.setUpvotesReceived(actual.getUpvotesReceived());
+                row.setUnreadNotifications(actual.getUnreadNotifications());
+                row.setReconciledAt(now);
+                profileCache.invalidate(userId);
+            }
+        }
+        return Optional.of(userIds.get(userIds.size() - 1));
+    }
+
+    private Map<Long, UserStats> lockRows(List<Long> userIds) {
+        return userStatsRepository.findAllByIdForUpdate(userIds).stream()
+                .collect(Collectors.toMap(UserStats::getUserId, Function.identity()));
+    }
+
+    // Applies a counter update in the caller's transaction, after the write it describes; each write
+    // updates a user's row at most once. A user without a row gets one counted from the source tables,
+    // which already include that write; if a concurrent writer created the row first, the insert waits
+    // for it and the update is applied on top.
+    private void increment(Long userId, IntSupplier update) {
+        if (update.getAsInt() == 0) {
+            UserStats counted = countStats(List.of(userId)).getOrDefault(userId, new UserStats(userId));
+            if (!userStatsRepository.insertIfAbsent(counted)) {
+                update.getAsInt();
+            }
+        }
+    }
+
+    // Counts and inserts rows for users that have none yet, so each user is counted directly only once
+    private Map<Long, UserStats> createRows(List<Long> userIds) {
+        Map<Long, UserStats> counted = countStats(userIds);
+        Map<Long, UserStats> rows = new HashMap<>();
+        List<Long> createdConcurrently = new ArrayList<>();
+        for (Long userId : userIds) {
+            UserStats stats = counted.getOrDefault(userId, new UserStats(userId));
+            if (userStatsRepository.insertIfAbsent(stats)) {
+                rows.put(userId, stats);
+            } else {
+                createdConcurrently.add(userId);
+            }
+        }
+        if (!createdConcurrently.isEmpty()) {
+            userStatsRepository.findAllById(createdConcurrently).forEach(row -> rows.put(row.getUserId(), row));
+        }
+        return rows;
+    }
+
+    // Counts from the source tables with one GROUP BY query per counter
+    private Map<Long, UserStats> countStats(List<Long> userIds) {
+        Map<Long, UserStats> stats = new HashMap<>();
+        for (Object[] row : followRepository.countFollowersByUserIds(userIds)) {
+            statsFor(stats, row).setFollowersCount(((Number) row[1]).intValue());
+        }
+        for (Object[] row : followRepository.countFollowingByUserIds(userIds)) {
+            statsFor(stats, row).setFollowingCount(((Number) row[1]).intValue());
+        }
+        for (Object[] row : postRepository.countPostsAndUpvotesByUserIds(userIds)) {
+            UserStats userStats = statsFor(stats, row);
+            userStats.setPostsCount(((Number) row[1]).intValue());
+            userStats.setUpvotesReceived(((Number) row[2]).intValue());
+        }
+        for (Object[] row : commentRepository.countByUserIds(userIds)) {
+            statsFor(stats, row).setCommentsCount(((Number) row[1]).intValue());
+        }
+        for (Object[] row : notificationRepository.countUnreadByUserIds(userIds)) {
+            statsFor(stats, row).setUnreadNotifications(((Number) row[1]).intValue());
+        }
+        return stats;
+    }
+
+    private UserStats statsFor(Map<Long, UserStats> stats, Object[] row) {
+        return stats.computeIfAbsent(((Number) row[0]).longValue(), UserStats::new);
+    }
+
+    private boolean sameCounts(UserStats a, UserStats b) {
+        return a.getFollowersCount() == b.getFollowersCount()
+                && a.getFollowingCount() == b.getFollowingCount()
+                && a.getPostsCount() == b.getPostsCount()
+                && a.getCommentsCount() == b.getCommentsCount()
+                && a.getUpvotesReceived() == b.getUpvotesReceived()
+                && a.getUnreadNotifications() == b.getUnreadNotifications();
+    }
+
+    private void adjustFollow(Follow follow, int delta) {
+        Long followerId = userId(follow.getFollower());
+        Long followedUserId = userId(follow.getFollowedUser());
+        if (followerId != null && followedUserId != null) {
+            increment(followerId, () -> userStatsRepository.addFollowing(followerId, delta));
+            increment(followedUserId, () -> userStatsRepository.addFollowers(followedUserId, delta));
+            profileCache.invalidate(followerId);
+            profileCache.invalidate(followedUserId);
+        }
+    }
+
+    private Long userId(User user) {
+        return user != null ? user.getId() : null;
+    }
+}
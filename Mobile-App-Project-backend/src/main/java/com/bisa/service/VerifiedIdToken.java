@@ -0,0 +1,8 @@
+package com.bisa.service;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Decoded claims of an ID token that passed verification
+public record VerifiedIdToken(String uid, String email, Map<String, Object> claims, Instant expiresAt) {
+}
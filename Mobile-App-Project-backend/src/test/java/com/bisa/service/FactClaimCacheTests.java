@@ -0,0 +1,75 @@
+package com.bisa.service;
+
+import com.bisa.dto.FactCheckResponse;
+import com.bisa.model.FactClaim;
+import com.bisa.repository.FactClaimRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class FactClaimCacheTests {
+    private static final String CLAIM = "The Volta Dam was completed in 1965.";
+    private static final String REPEATED = "the volta dam was completed in 1965!";
+
+    @Test
+    void givesEveryOccurrenceOfARepeatedClaimTheStoredVerdict() {
+        FactClaimRepository repository = mock(FactClaimRepository.class);
+        List<Collection<String>> requested = new ArrayList<>();
+        when(repository.findByClaimHashInAndVerifiedAtAfter(anyCollection(), any(Instant.class))).thenAnswer(invocation -> {
+            requested.add(List.copyOf(invocation.<Collection<String>>getArgument(0)));
+            return List.of(stored(CLAIM));
+        });
+        FactClaimCache cache = new FactClaimCache(repository, 100, 30);
+
+        Map<String, FactCheckResponse.FactualClaim> known = cache.lookup(List.of(CLAIM, REPEATED, CLAIM));
+
+        assertEquals(1, requested.size());
+        assertEquals(List.of(FactClaimCache.hash(CLAIM)), requested.get(0));
+        assertEquals(2, known.size());
+        assertSame(known.get(CLAIM), known.get(REPEATED));
+        assertEquals("SUPPORTED", known.get(REPEATED).getVerificationStatus());
+    }
+
+    @Test
+    void servesRepeatedClaimsFromTheCacheAfterTheFirstLoad() {
+        FactClaimRepository repository = mock(FactClaimRepository.class);
+        when(repository.findByClaimHashInAndVerifiedAtAfter(anyCollection(), any(Instant.class)))
+                .thenReturn(List.of(stored(CLAIM)));
+        FactClaimCache cache = new FactClaimCache(repository, 100, 30);
+        cache.lookup(List.of(CLAIM));
+
+        Map<String, FactCheckResponse.FactualClaim> known = cache.lookup(List.of(REPEATED, CLAIM));
+
+        assertEquals(2, known.size());
+        verify(repository, times(1)).findByClaimHashInAndVerifiedAtAfter(anyCollection(), any(Instant.class));
+    }
+
+    @Test
+    void leavesUnknownClaimsOutOfTheResult() {
+        FactClaimRepository repository = mock(FactClaimRepository.class);
+        when(repository.findByClaimHashInAndVerifiedAtAfter(anyCollection(), any(Instant.class))).thenReturn(List.of());
+        FactClaimCache cache = new FactClaimCache(repository, 100, 30);
+
+        assertTrue(cache.lookup(List.of(CLAIM, REPEATED)).isEmpty());
+    }
+
+    private static FactClaim stored(String text) {
+        FactClaim claim = new FactClaim();
+        claim.setClaimHash(FactClaimCache.hash(text));
+        claim.setClaimText(text);
+        claim.setVerificationStatus("SUPPORTED");
+        claim.setConfidence(0.9);
+        claim.setExplanation("Completed in 1965");
+        claim.setVerifiedAt(Instant.now());
+        return claim;
+    }
+}
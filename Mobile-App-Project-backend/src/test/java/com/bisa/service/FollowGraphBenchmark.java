@@ -0,0 +1,70 @@
+package com.bisa.service;
+
+import java.util.Random;
+
+// Standalone memory/latency check for FollowGraph; not a unit test. Run after `mvn test-compile` with
+//   java -Xmx4g -cp target/classes:target/test-classes com.bisa.service.FollowGraphBenchmark [edges] [users]
+// Follow targets are skewed (squared uniform) so a few users collect most followers, as on a real network.
+public class FollowGraphBenchmark {
+
+    public static void main(String[] args) {
+        int edges = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Random random = new Random(42);
+
+        long before = usedHeap();
+        FollowGraph graph = build(edges, users, random);
+        long retained = usedHeap() - before;
+        System.out.printf("%,d edges, %,d users: %,d MB retained, %.1f bytes per edge%n",
+                graph.edgeCount(), graph.userCount(), retained >> 20, (double) retained / graph.edgeCount());
+
+        long[] followers = new long[1_000_000];
+        long[] targets = new long[followers.length];
+        for (int i = 0; i < followers.length; i++) {
+            followers[i] = 1 + random.nextInt(users);
+            targets[i] = skewedUser(random, users);
+        }
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < followers.length; i++) {
+                sink += graph.isFollowing(followers[i], targets[i]) ? 1 : 0;
+            }
+            long isFollowingNanos = (System.nanoTime() - startedAt) / followers.length;
+
+            int mutualsCalls = 100_000;
+            startedAt = System.nanoTime();
+            for (int i = 0; i < mutualsCalls; i++) {
+                sink += graph.mutuals(followers[i]).length;
+            }
+            long mutualsNanos = (System.nanoTime() - startedAt) / mutualsCalls;
+            System.out.printf("round %d: isFollowing %d ns, mutuals %d ns%n", round, isFollowingNanos, mutualsNanos);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static FollowGraph build(int edges, int users, Random random) {
+        FollowGraph.Builder builder = new FollowGraph.Builder();
+        for (int i = 0; i < edges; i++) {
+            long follower = 1 + random.nextInt(users);
+            long followed = skewedUser(random, users);
+            if (follower != followed) {
+                builder.add(follower, followed);
+            }
+        }
+        return builder.build();
+    }
+
+    private static long skewedUser(Random random, int users) {
+        double u = random.nextDouble();
+        return 1 + (long) (u * u * users);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
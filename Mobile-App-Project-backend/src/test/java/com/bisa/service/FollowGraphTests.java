@@ -0,0 +1,114 @@
+package com.bisa.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FollowGraphTests {
+
+    @Test
+    void encodingRoundTripsSmallAndLargeIds() {
+        long[] ids = {0, 1, 127, 128, 16_383, 16_384, 1L << 35, Long.MAX_VALUE};
+        assertArrayEquals(ids, FollowGraph.decode(FollowGraph.encode(ids, ids.length)));
+        assertArrayEquals(new long[0], FollowGraph.decode(FollowGraph.encode(new long[0], 0)));
+        assertArrayEquals(new long[0], FollowGraph.decode(null));
+    }
+
+    @Test
+    void splicedInsertAndRemoveMatchFreshEncoding() {
+        Random random = new Random(42);
+        TreeSet<Long> expected = new TreeSet<>();
+        byte[] list = null;
+        for (int i = 0; i < 5_000; i++) {
+            // Mix of small and multi-byte deltas
+            long value = random.nextBoolean() ? random.nextInt(300) : random.nextInt(1 << 30);
+            if (random.nextInt(3) == 0) {
+                list = FollowGraph.remove(list, value);
+                expected.remove(value);
+            } else {
+                list = FollowGraph.insert(list, value);
+                expected.add(value);
+            }
+            long[] ids = expected.stream().mapToLong(Long::longValue).toArray();
+            assertArrayEquals(FollowGraph.encode(ids, ids.length), list == null ? FollowGraph.encode(ids, 0) : list);
+        }
+    }
+
+    @Test
+    void duplicateInsertIsIgnored() {
+        FollowGraph graph = FollowGraph.empty();
+        assertTrue(graph.addEdge(1, 2));
+        assertFalse(graph.addEdge(1, 2));
+        assertEquals(1, graph.edgeCount());
+        assertEquals(1, graph.followingCount(1));
+        assertEquals(1, graph.followerCount(2));
+        assertArrayEquals(new long[]{2}, graph.following(1));
+    }
+
+    @Test
+    void removingLastEdgeEmptiesBothSides() {
+        FollowGraph graph = FollowGraph.empty();
+        graph.addEdge(1, 2);
+        assertTrue(graph.removeEdge(1, 2));
+        assertFalse(graph.removeEdge(1, 2));
+        assertFalse(graph.isFollowing(1, 2));
+        assertArrayEquals(new long[0], graph.following(1));
+        assertArrayEquals(new long[0], graph.followers(2));
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.userCount());
+    }
+
+    @Test
+    void intersectsMutualsAndCommonFollowers() {
+        FollowGraph graph = new FollowGraph.Builder()
+                .add(1, 2).add(1, 3).add(1, 500).add(1, 70_000)
+                .add(2, 1).add(500, 1).add(70_000, 1).add(4, 1)
+                .add(4, 2).add(500, 2).add(6, 2)
+                .build();
+        assertArrayEquals(new long[]{2, 500, 70_000}, graph.mutuals(1));
+        assertArrayEquals(new long[]{4, 500}, graph.commonFollowers(1, 2));
+        assertArrayEquals(new long[0], graph.commonFollowers(1, 99));
+        assertTrue(graph.isFollowing(4, 2));
+        assertFalse(graph.isFollowing(2, 4));
+    }
+
+    @Test
+    void concurrentFollowAndUnfollowKeepBothDirectionsInStep() throws InterruptedException {
+        FollowGraph graph = FollowGraph.empty();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            boolean follow = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    if (follow) {
+                        graph.addEdge(1, 2);
+                    } else {
+                        graph.removeEdge(1, 2);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        boolean following = graph.following(1).length == 1;
+        assertEquals(following, graph.followers(2).length == 1);
+        assertEquals(following ? 1 : 0, graph.edgeCount());
+    }
+}
@@ -0,0 +1,35 @@
+package com.bisa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Map;
+
+// Standalone latency check for LocalIdTokenVerifier; not a unit test. Run after `mvn test-compile` with
+//   java -cp "target/classes:target/test-classes:$(cat cp.txt)" com.bisa.service.LocalIdTokenVerifierBenchmark
+// where cp.txt comes from `mvn dependency:build-classpath -Dmdep.outputFile=cp.txt`.
+public class LocalIdTokenVerifierBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair key = generator.generateKeyPair();
+        LocalIdTokenVerifier verifier = new LocalIdTokenVerifier(
+                Map.of("key-1", key.getPublic()), "bisa-bench", new ObjectMapper(), 60);
+        String token = LocalIdTokenVerifierTests.sign(key.getPrivate(),
+                LocalIdTokenVerifierTests.claims("bisa-bench", 3600));
+
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                sink += verifier.verify(token).uid().length();
+            }
+            System.out.printf("round %d: %.1f us per verification%n",
+                    round, (System.nanoTime() - startedAt) / 1_000.0 / calls);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,71 @@
+package com.bisa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Synthetic RS256 tokens signed with a generated key; the same approach works for load-testing the auth filter
+class LocalIdTokenVerifierTests {
+    private static final String PROJECT = "bisa-test";
+
+    private static KeyPair signingKey;
+    private static KeyPair otherKey;
+    private static LocalIdTokenVerifier verifier;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKey = generator.generateKeyPair();
+        otherKey = generator.generateKeyPair();
+        verifier = new LocalIdTokenVerifier(Map.of("key-1", signingKey.getPublic()), PROJECT, new ObjectMapper(), 60);
+    }
+
+    @Test
+    void acceptsValidToken() throws Exception {
+        VerifiedIdToken token = verifier.verify(sign(signingKey.getPrivate(), claims(PROJECT, 3600)));
+        assertEquals("user-1", token.uid());
+        assertEquals("user@example.com", token.email());
+        assertTrue(token.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void rejectsWrongKeyExpiredAndForeignTokens() throws Exception {
+        assertRejected(sign(otherKey.getPrivate(), claims(PROJECT, 3600)));
+        assertRejected(sign(signingKey.getPrivate(), claims(PROJECT, -3600)));
+        assertRejected(sign(signingKey.getPrivate(), claims("other-project", 3600)));
+        assertRejected("not.a-token");
+    }
+
+    private void assertRejected(String token) {
+        InvalidIdTokenException e = assertThrows(InvalidIdTokenException.class, () -> verifier.verify(token));
+        assertTrue(e.isPermanent());
+    }
+
+    static String claims(String project, long expiresInSeconds) {
+        long now = Instant.now().getEpochSecond();
+        return "{\"iss\":\"https://securetoken.google.com/" + project + "\",\"aud\":\"" + project + "\"," +
+               "\"sub\":\"user-1\",\"email\":\"user@example.com\",\"iat\":" + now + ",\"exp\":" + (now + expiresInSeconds) + "}";
+    }
+
+    static String sign(PrivateKey key, String payload) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signed = encoder.encodeToString("{\"alg\":\"RS256\",\"kid\":\"key-1\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(key);
+        signature.update(signed.getBytes(StandardCharsets.US_ASCII));
+        return signed + "." + encoder.encodeToString(signature.sign());
+    }
+}
@@ -0,0 +1,88 @@
+package com.bisa.service;
+
+import com.bisa.dto.UserCard;
+import com.bisa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UserCardCacheTests {
+
+    @Test
+    void returnsCardsInRequestOrderWithoutDuplicatesOrUnknownUsers() {
+        UserRepository userRepository = repositoryWith(1L, 2L, 3L);
+        UserCardCache cache = new UserCardCache(userRepository, 100, 30);
+
+        List<UserCard> cards = cache.getCards(Arrays.asList(3L, 99L, 1L, 3L, null, 2L, 1L));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(cards));
+        verify(userRepository, times(1)).findCardsByIds(anyCollection());
+    }
+
+    @Test
+    void loadsOnlyMissingIdsAndDoesNotCacheUnknownUsers() {
+        UserRepository userRepository = repositoryWith(1L, 2L);
+        UserCardCache cache = new UserCardCache(userRepository, 100, 30);
+        cache.getCards(List.of(1L, 42L));
+
+        List<Collection<Long>> requested = new ArrayList<>();
+        when(userRepository.findCardsByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            requested.add(List.copyOf(ids));
+            return cards(ids, 1L, 2L);
+        });
+
+        assertEquals(List.of(1L, 2L), ids(cache.getCards(List.of(1L, 42L, 2L))));
+        assertEquals(1, requested.size());
+        assertEquals(List.of(2L, 42L), requested.get(0).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void emptyAndUnknownRequestsReturnNothing() {
+        UserRepository userRepository = repositoryWith();
+        UserCardCache cache = new UserCardCache(userRepository, 100, 30);
+
+        assertTrue(cache.getCards(List.of()).isEmpty());
+        assertTrue(cache.get(null).isEmpty());
+        assertTrue(cache.get(7L).isEmpty());
+        verify(userRepository, times(1)).findCardsByIds(anyCollection());
+    }
+
+    @Test
+    void invalidateReloadsTheCard() {
+        UserRepository userRepository = repositoryWith(5L);
+        UserCardCache cache = new UserCardCache(userRepository, 100, 30);
+        cache.get(5L);
+        cache.get(5L);
+        cache.invalidate(5L);
+        cache.get(5L);
+        verify(userRepository, times(2)).findCardsByIds(anyCollection());
+    }
+
+    private static UserRepository repositoryWith(Long... knownIds) {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCardsByIds(anyCollection()))
+                .thenAnswer(invocation -> cards(invocation.getArgument(0), knownIds));
+        return userRepository;
+    }
+
+    private static List<UserCard> cards(Collection<Long> requested, Long... knownIds) {
+        List<Long> known = Arrays.asList(knownIds);
+        return requested.stream()
+                .filter(known::contains)
+                .map(id -> new UserCard(id, "User " + id, null, null))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<UserCard> cards) {
+        return cards.stream().map(UserCard::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,77 @@
+package com.bisa.service;
+
+import java.util.Random;
+
+// Standalone memory/latency check for UserNameIndex; not a unit test. Run after `mvn test-compile` with
+//   java -Xmx4g -cp target/classes:target/test-classes com.bisa.service.UserNameIndexBenchmark [users]
+// Names are two or three words drawn from small syllable sets, so common fragments ("an", "ama") hit a
+// large share of users the way real first names do.
+public class UserNameIndexBenchmark {
+    private static final String[] SYLLABLES = {
+            "a", "ko", "fi", "ama", "kwa", "me", "e", "fua", "yaw", "ab", "ena", "jo", "han", "na", "so",
+            "li", "ma", "ri", "to", "ben", "ann", "el", "da", "vi", "ola", "mi", "ke", "nu", "sa", "ti"
+    };
+    private static final String[] QUERIES = {"an", "ama", "kofi", "annabel", "kwame mensah", "zzq"};
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(42);
+
+        long before = usedHeap();
+        UserNameIndex.Builder builder = new UserNameIndex.Builder();
+        for (long userId = 1; userId <= users; userId++) {
+            builder.add(userId, name(random));
+        }
+        UserNameIndex index = builder.build();
+        builder = null;
+        long retained = usedHeap() - before;
+        System.out.printf("%,d users: %,d MB retained%n", index.size(), retained >> 20);
+
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            StringBuilder line = new StringBuilder("round " + round + ":");
+            for (String query : QUERIES) {
+                int calls = 2_000;
+                long startedAt = System.nanoTime();
+                for (int i = 0; i < calls; i++) {
+                    sink += index.search(query, 20).userIds().size();
+                }
+                line.append(String.format(" %s %d us,", query, (System.nanoTime() - startedAt) / calls / 1_000));
+            }
+
+            // Signups and renames touch common trigrams whose posting lists hold a large share of all users
+            int writes = 20_000;
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < writes; i++) {
+                long userId = users + 1 + random.nextInt(users);
+                index.put(userId, name(random));
+            }
+            line.append(String.format(" put %d us", (System.nanoTime() - startedAt) / writes / 1_000));
+            System.out.println(line);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static String name(Random random) {
+        int words = 2 + random.nextInt(2);
+        StringBuilder name = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return name.toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
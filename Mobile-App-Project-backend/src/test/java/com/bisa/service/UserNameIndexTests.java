@@ -0,0 +1,149 @@
+package com.bisa.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserNameIndexTests {
+
+    @Test
+    void normalizesCaseAccentsAndPunctuation() {
+        assertEquals("jose alvarez", UserNameIndex.normalize("  Jos\u00e9  \u00c1lvarez!! "));
+        assertEquals("ama k owusu", UserNameIndex.normalize("Ama K. Owusu"));
+        assertEquals("", UserNameIndex.normalize(null));
+    }
+
+    @Test
+    void extractsOverlappingTrigrams() {
+        assertEquals(Set.of(UserNameIndex.gram('a', 'b', 'c'), UserNameIndex.gram('b', 'c', 'd')),
+                UserNameIndex.trigramsOf("abcd"));
+        assertEquals(Set.of(UserNameIndex.gram('a', 'a', 'a')), UserNameIndex.trigramsOf("aaaaa"));
+        assertTrue(UserNameIndex.trigramsOf("ab").isEmpty());
+    }
+
+    @Test
+    void ranksNamePrefixThenWordPrefixThenSubstring() {
+        UserNameIndex index = new UserNameIndex.Builder()
+                .add(1, "Kofi Annan")
+                .add(2, "Annabel Mensah")
+                .add(3, "Joanna Boateng")
+                .add(4, "Ann Lee")
+                .add(5, "Kwame Nkrumah")
+                .build();
+        assertEquals(List.of(2L, 4L, 1L, 3L), ids(index.search("ann", 10)));
+        // Two-character queries only match at the start of a word
+        assertEquals(List.of(2L, 4L, 1L), ids(index.search("an", 10)));
+        assertEquals(List.of(2L, 4L), ids(index.search("ann", 2)));
+        assertTrue(ids(index.search("a", 10)).isEmpty());
+    }
+
+    @Test
+    void intersectsPostingListsAndVerifiesCandidates() {
+        // Both names contain the trigrams of "abcd", but only one contains "abcd" itself
+        UserNameIndex index = new UserNameIndex.Builder()
+                .add(1, "abc bcd")
+                .add(2, "xabcd")
+                .build();
+        assertEquals(List.of(2L), ids(index.search("abcd", 10)));
+        assertTrue(ids(index.search("abcz", 10)).isEmpty());
+    }
+
+    @Test
+    void putAndRemoveUpdatePostings() {
+        UserNameIndex index = UserNameIndex.empty();
+        index.put(7, "Efua Sutherland");
+        assertEquals(List.of(7L), ids(index.search("suther", 10)));
+
+        index.put(7, "Efua Kuma");
+        assertTrue(ids(index.search("suther", 10)).isEmpty());
+        assertEquals(List.of(7L), ids(index.search("kuma", 10)));
+        assertEquals(List.of(7L), ids(index.search("efua", 10)));
+
+        index.put(8, "Efua Mensah");
+        assertEquals(List.of(7L, 8L), ids(index.search("efua", 10)));
+
+        index.remove(7);
+        assertEquals(List.of(8L), ids(index.search("efua", 10)));
+        assertTrue(ids(index.search("kuma", 10)).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void churnAcrossDeltaCompactionsKeepsPostingsExact() {
+        UserNameIndex index = new UserNameIndex.Builder()
+                .add(1, "Ann Base")
+                .add(2, "Ann Base")
+                .build();
+        TreeSet<Long> expected = new TreeSet<>(List.of(1L, 2L));
+        Random random = new Random(7);
+        for (int i = 0; i < 10 * UserNameIndex.DELTA_LIMIT; i++) {
+            long userId = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                index.remove(userId);
+                expected.remove(userId);
+            } else {
+                index.put(userId, "Ann " + userId);
+                expected.add(userId);
+            }
+        }
+        assertEquals(new ArrayList<>(expected), ids(index.search("ann", 10_000)));
+        assertEquals(expected.size(), index.size());
+
+        for (Long userId : expected) {
+            index.remove(userId);
+        }
+        assertTrue(ids(index.search("ann", 10)).isEmpty());
+    }
+
+    @Test
+    void postingDeltasStayBoundedAndMatchASortedSet() {
+        UserNameIndex.Posting posting = null;
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20 * UserNameIndex.DELTA_LIMIT; i++) {
+            long userId = random.nextInt(1_000);
+            if (random.nextInt(3) != 0) {
+                posting = posting == null ? UserNameIndex.Posting.of(userId) : posting.with(userId);
+                expected.add(userId);
+            } else if (posting != null) {
+                posting = posting.without(userId);
+                expected.remove(userId);
+            }
+            assertEquals(expected.size(), posting == null ? 0 : posting.size());
+            if (posting != null) {
+                assertTrue(posting.added.length + posting.removed.length < UserNameIndex.DELTA_LIMIT);
+            }
+        }
+        for (long userId = 0; userId < 1_000; userId++) {
+            assertEquals(expected.contains(userId), posting != null && posting.contains(userId));
+        }
+    }
+
+    @Test
+    void flagsResultsCutShortByTheCandidateCap() {
+        UserNameIndex.Builder builder = new UserNameIndex.Builder();
+        for (long id = 1; id <= UserNameIndex.MAX_CANDIDATES + 1; id++) {
+            builder.add(id, "abc bcd");
+        }
+        builder.add(UserNameIndex.MAX_CANDIDATES + 100, "abcd");
+        UserNameIndex index = builder.build();
+
+        UserNameIndex.Matches matches = index.search("abcd", 10);
+        assertTrue(matches.truncated());
+        assertTrue(matches.userIds().isEmpty());
+
+        // A full page is not flagged, even when the candidate lists are long
+        assertFalse(index.search("abc", 10).truncated());
+        assertEquals(10, index.search("abc", 10).userIds().size());
+    }
+
+    private static List<Long> ids(UserNameIndex.Matches matches) {
+        return matches.userIds();
+    }
+}